@@ -0,0 +1,99 @@
+package com.leanforge.game.slack;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures handling of interactive message payload, comparing streaming extraction with the Jackson tree model.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ActionControllerBenchmark {
+
+    static final String PAYLOAD = "{\"actions\":[{\"name\":\"vote\",\"type\":\"button\",\"value\":\"yes\"}],"
+            + "\"callback_id\":\"3f1c0c4e-7a4c-4d8e-9f5e-3b0a6b1f2c11\",\"team\":{\"id\":\"T1\",\"domain\":\"game\"},"
+            + "\"channel\":{\"id\":\"C1\",\"name\":\"channel1\"},\"user\":{\"id\":\"U1\",\"name\":\"user1\"},"
+            + "\"action_ts\":\"1500000001.000001\",\"message_ts\":\"1500000000.000100\",\"attachment_id\":\"1\","
+            + "\"token\":\"verification-token\",\"is_app_unfurl\":false,"
+            + "\"original_message\":{\"text\":\"Vote now\",\"attachments\":[{\"callback_id\":\"3f1c0c4e-7a4c-4d8e-9f5e-3b0a6b1f2c11\","
+            + "\"text\":\"Do you agree?\",\"id\":1,\"actions\":[{\"id\":\"1\",\"name\":\"vote\",\"text\":\"Yes\",\"type\":\"button\",\"value\":\"yes\"},"
+            + "{\"id\":\"2\",\"name\":\"vote\",\"text\":\"No\",\"type\":\"button\",\"value\":\"no\"}]}]},"
+            + "\"response_url\":\"https://hooks.slack.com/actions/T1/1/abc\"}";
+
+    private final ActionController actionController = new ActionController();
+    private final ActionPayloadParser payloadParser = new ActionPayloadParser(new JsonFactory());
+    private final ActionEvent event = new ActionEvent();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Setup
+    public void setup() {
+        actionController.slackService = Benchmarks.slackService(100, 10);
+    }
+
+    @Benchmark
+    public void handleAction() throws IOException {
+        actionController.handleAction(PAYLOAD);
+    }
+
+    @Benchmark
+    public ActionEvent streamingParse() throws IOException {
+        return payloadParser.parse(PAYLOAD, event);
+    }
+
+    @Benchmark
+    public ActionEvent treeParse() throws IOException {
+        JsonNode payload = objectMapper.readTree(PAYLOAD);
+        ActionEvent result = new ActionEvent();
+        result.setUserId(Optional.of(payload)
+                .map(it -> it.get("user"))
+                .map(it -> it.get("id"))
+                .map(JsonNode::textValue)
+                .orElseThrow(IllegalArgumentException::new));
+        result.setActionName(Optional.of(payload)
+                .map(it -> it.get("actions"))
+                .map(it -> it.get(0))
+                .map(it -> it.get("name"))
+                .map(JsonNode::textValue)
+                .orElseThrow(IllegalArgumentException::new));
+        result.setActionValue(Optional.of(payload)
+                .map(it -> it.get("actions"))
+                .map(it -> it.get(0))
+                .map(it -> it.get("value"))
+                .map(JsonNode::textValue)
+                .orElseThrow(IllegalArgumentException::new));
+        result.setChannelId(Optional.of(payload)
+                .map(it -> it.get("channel"))
+                .map(it -> it.get("id"))
+                .map(JsonNode::textValue)
+                .orElseThrow(IllegalArgumentException::new));
+        result.setMessageTimestamp(Optional.of(payload)
+                .map(it -> it.get("message_ts"))
+                .map(JsonNode::textValue)
+                .orElseThrow(IllegalArgumentException::new));
+        result.setCallbackId(Optional.of(payload)
+                .map(it -> it.get("callback_id"))
+                .map(JsonNode::textValue)
+                .orElseThrow(IllegalArgumentException::new));
+        return result;
+    }
+}
@@ -0,0 +1,17 @@
+package com.leanforge.game.slack;
+
+/**
+ * Creates services wired with {@link InMemorySlackSession}.
+ */
+public final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    public static SlackService slackService(int userCount, int channelCount) {
+        SlackService slackService = new SlackService();
+        slackService.slackSession = new InMemorySlackSession(userCount, channelCount);
+        slackService.rateLimitEnabled = false;
+        return slackService;
+    }
+}
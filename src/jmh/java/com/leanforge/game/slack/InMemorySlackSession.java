@@ -0,0 +1,177 @@
+package com.leanforge.game.slack;
+
+import com.ullink.slack.simpleslackapi.SlackChannel;
+import com.ullink.slack.simpleslackapi.SlackMessageHandle;
+import com.ullink.slack.simpleslackapi.SlackPersona;
+import com.ullink.slack.simpleslackapi.SlackPreparedMessage;
+import com.ullink.slack.simpleslackapi.SlackSession;
+import com.ullink.slack.simpleslackapi.SlackSessionWrapper;
+import com.ullink.slack.simpleslackapi.SlackUser;
+import com.ullink.slack.simpleslackapi.listeners.SlackChannelArchivedListener;
+import com.ullink.slack.simpleslackapi.listeners.SlackChannelDeletedListener;
+import com.ullink.slack.simpleslackapi.listeners.SlackChannelRenamedListener;
+import com.ullink.slack.simpleslackapi.listeners.SlackMessagePostedListener;
+import com.ullink.slack.simpleslackapi.listeners.SlackTeamJoinListener;
+import com.ullink.slack.simpleslackapi.listeners.SlackUserChangeListener;
+import com.ullink.slack.simpleslackapi.replies.SlackChannelReply;
+import com.ullink.slack.simpleslackapi.replies.SlackMessageReply;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Slack session kept in memory, so benchmarks run offline.
+ * Outbound calls succeed immediately, unsupported calls throw {@link UnsupportedOperationException}.
+ */
+class InMemorySlackSession extends SlackSessionWrapper {
+
+    private final Map<String, SlackUser> users = new HashMap<>();
+    private final Map<String, SlackChannel> channels = new HashMap<>();
+    private final SlackUser persona = new InMemoryUser("UBOT", "bot", "Bot", "UTC");
+    private final AtomicLong timestamps = new AtomicLong(1500000000000000L);
+
+    InMemorySlackSession(int userCount, int channelCount) {
+        super((SlackSession) Proxy.newProxyInstance(SlackSession.class.getClassLoader(), new Class<?>[]{SlackSession.class}, (proxy, method, args) -> {
+            throw new UnsupportedOperationException(method.getName());
+        }));
+
+        for (int i = 0; i < userCount; i++) {
+            SlackUser user = new InMemoryUser("U" + i, "user" + i, "User " + i, "Europe/Warsaw");
+            users.put(user.getId(), user);
+        }
+
+        for (int i = 0; i < channelCount; i++) {
+            SlackChannel channel = new SlackChannel("C" + i, "channel" + i, "", "", false, true, false);
+            channels.put(channel.getId(), channel);
+        }
+    }
+
+    @Override
+    public void connect() {
+    }
+
+    @Override
+    public void disconnect() {
+    }
+
+    @Override
+    public boolean isConnected() {
+        return true;
+    }
+
+    @Override
+    public SlackPersona sessionPersona() {
+        return persona;
+    }
+
+    @Override
+    public Collection<SlackUser> getUsers() {
+        return users.values();
+    }
+
+    @Override
+    public Collection<SlackChannel> getChannels() {
+        return channels.values();
+    }
+
+    @Override
+    public SlackUser findUserById(String userId) {
+        return users.get(userId);
+    }
+
+    @Override
+    public SlackUser findUserByUserName(String userName) {
+        return users.values().stream().filter(it -> it.getUserName().equals(userName)).findAny().orElse(null);
+    }
+
+    @Override
+    public SlackChannel findChannelById(String channelId) {
+        return channels.get(channelId);
+    }
+
+    @Override
+    public SlackChannel findChannelByName(String channelName) {
+        return channels.values().stream().filter(it -> it.getName().equals(channelName)).findAny().orElse(null);
+    }
+
+    @Override
+    public void refetchUsers() {
+    }
+
+    /**
+     * Benchmarks dispatch events directly, so listeners are never called.
+     */
+    @Override
+    public void addMessagePostedListener(SlackMessagePostedListener listener) {
+    }
+
+    @Override
+    public void addSlackUserChangeListener(SlackUserChangeListener listener) {
+    }
+
+    @Override
+    public void addSlackTeamJoinListener(SlackTeamJoinListener listener) {
+    }
+
+    /**
+     * Channels of benchmarked workspace never change.
+     */
+    @Override
+    public void addChannelRenamedListener(SlackChannelRenamedListener listener) {
+    }
+
+    @Override
+    public void addChannelArchivedListener(SlackChannelArchivedListener listener) {
+    }
+
+    @Override
+    public void addChannelDeletedListener(SlackChannelDeletedListener listener) {
+    }
+
+    @Override
+    public SlackMessageHandle<SlackMessageReply> sendMessage(SlackChannel channel, String message) {
+        return messageReply();
+    }
+
+    @Override
+    public SlackMessageHandle<SlackMessageReply> sendMessage(SlackChannel channel, SlackPreparedMessage preparedMessage) {
+        return messageReply();
+    }
+
+    @Override
+    public SlackMessageHandle<SlackMessageReply> updateMessage(String timeStamp, SlackChannel channel, String message) {
+        return messageReply();
+    }
+
+    @Override
+    public SlackMessageHandle<SlackMessageReply> addReactionToMessage(SlackChannel channel, String messageTimeStamp, String emojiCode) {
+        return messageReply();
+    }
+
+    @Override
+    public SlackMessageHandle<SlackMessageReply> removeReactionFromMessage(SlackChannel channel, String messageTimeStamp, String emojiCode) {
+        return messageReply();
+    }
+
+    @Override
+    public SlackMessageHandle<SlackMessageReply> sendTyping(SlackChannel channel) {
+        return messageReply();
+    }
+
+    @Override
+    public SlackMessageHandle<SlackChannelReply> openDirectMessageChannel(SlackUser user) {
+        SlackMessageHandle<SlackChannelReply> handle = new SlackMessageHandle<>(0);
+        handle.setReply(new SlackChannelReply(true, null, new SlackChannel("D" + user.getId(), null, "", "", true, true, false)));
+        return handle;
+    }
+
+    private SlackMessageHandle<SlackMessageReply> messageReply() {
+        long timestamp = timestamps.incrementAndGet();
+        SlackMessageHandle<SlackMessageReply> handle = new SlackMessageHandle<>(timestamp);
+        handle.setReply(new SlackMessageReply(true, null, timestamp, timestamp / 1000000 + "." + timestamp % 1000000));
+        return handle;
+    }
+}
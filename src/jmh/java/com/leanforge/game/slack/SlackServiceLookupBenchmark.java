@@ -0,0 +1,55 @@
+package com.leanforge.game.slack;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures user and channel lookups of {@link SlackService} in a workspace of 8000 users.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlackServiceLookupBenchmark {
+
+    private SlackService slackService;
+
+    @Setup
+    public void setup() {
+        slackService = Benchmarks.slackService(8000, 200);
+    }
+
+    @Benchmark
+    public String realNameById() {
+        return slackService.getRealNameById("U4321");
+    }
+
+    @Benchmark
+    public String realNameByUsername() {
+        return slackService.getRealNameByUsername("user4321");
+    }
+
+    @Benchmark
+    public ZoneId userTimezone() {
+        return slackService.getUserTimezone("U4321");
+    }
+
+    @Benchmark
+    public Optional<String> channelId() {
+        return slackService.getChannelId("channel123");
+    }
+}
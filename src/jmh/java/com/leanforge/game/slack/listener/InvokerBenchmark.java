@@ -0,0 +1,85 @@
+package com.leanforge.game.slack.listener;
+
+import com.leanforge.game.slack.SlackMessage;
+import com.leanforge.game.slack.SlackService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.StaticApplicationContext;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares compiled listener invoker with reflective invocation it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvokerBenchmark {
+
+    private final Listener listener = new Listener();
+    private final SlackMessage message = new SlackMessage("1500000000.000100", "C1");
+
+    private SlackMessageEventListenerSupport.SlackMethodInvoker invoker;
+    private Method method;
+    private List<Function<Object[], Object>> reflectiveParams;
+    private Matcher matcher;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        SlackMessageEventListenerSupport support = new SlackMessageEventListenerSupport(new SlackService(), new StaticApplicationContext());
+        method = Listener.class.getMethod("play", SlackMessage.class, String.class, String.class, String.class);
+        invoker = support.createAnnotationBasedInvoker(method, listener);
+
+        reflectiveParams = Arrays.asList(
+                data -> data[0],
+                data -> data[1],
+                data -> data[2],
+                data -> ((Matcher) data[3]).group(1)
+        );
+
+        matcher = Pattern.compile("play (\\d+)").matcher("play 42");
+        matcher.matches();
+    }
+
+    @Benchmark
+    public Object compiledInvoker() throws Exception {
+        invoker.invoke(message, "U1", "play 42", matcher);
+        return listener.lastScore;
+    }
+
+    @Benchmark
+    public Object reflectiveInvoke() throws Exception {
+        Object[] data = new Object[]{message, "U1", "play 42", matcher, null};
+        Object[] params = reflectiveParams.stream()
+                .map(it -> it.apply(data))
+                .toArray();
+        method.invoke(listener, params);
+        return listener.lastScore;
+    }
+
+    public static class Listener {
+        private volatile String lastScore;
+
+        @SlackMessageListener("play (\\d+)")
+        public void play(SlackMessage message, @SlackUserId String userId, @SlackMessageContent String content, @SlackMessageRegexGroup(1) String score) {
+            lastScore = score;
+        }
+    }
+}
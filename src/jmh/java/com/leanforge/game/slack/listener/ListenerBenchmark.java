@@ -0,0 +1,85 @@
+package com.leanforge.game.slack.listener;
+
+import com.leanforge.game.slack.Benchmarks;
+import com.leanforge.game.slack.SlackMessage;
+import com.leanforge.game.slack.SlackService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.StaticApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Measures listener invocation: building params, handling results and whole message dispatch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListenerBenchmark {
+
+    private final SlackMessage message = new SlackMessage("1500000000.000100", "C1");
+
+    private SlackMessageEventListenerSupport support;
+    private SlackMessageEventListenerSupport.PrecompiledParams params;
+    private SlackMessageEventListenerSupport.SlackMethodInvoker replyingInvoker;
+    private Matcher matcher;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        SlackService slackService = Benchmarks.slackService(100, 10);
+        StaticApplicationContext applicationContext = new StaticApplicationContext();
+        applicationContext.registerSingleton("listener", Listener.class);
+        applicationContext.refresh();
+
+        support = new SlackMessageEventListenerSupport(slackService, applicationContext);
+        params = new SlackMessageEventListenerSupport.PrecompiledParams(
+                Listener.class.getMethod("play", SlackMessage.class, String.class, String.class, String.class));
+        replyingInvoker = support.createAnnotationBasedInvoker(Listener.class.getMethod("reply"), new Listener());
+
+        matcher = Pattern.compile("play (\\d+)").matcher("play 42");
+        matcher.matches();
+    }
+
+    @Benchmark
+    public Object[] buildParams() {
+        return params.buildParams(message, "U1", "play 42", matcher, null);
+    }
+
+    @Benchmark
+    public void handleStringResult() throws Exception {
+        replyingInvoker.invoke(message, "U1", "reply", null);
+    }
+
+    @Benchmark
+    public void dispatchMessage() {
+        support.dispatchMessage(message, "play 42");
+    }
+
+    @SlackController
+    public static class Listener {
+        private volatile String lastScore;
+
+        @SlackMessageListener("play (\\d+)")
+        public void play(SlackMessage message, @SlackUserId String userId, @SlackMessageContent String content, @SlackMessageRegexGroup(1) String score) {
+            lastScore = score;
+        }
+
+        @SlackMessageListener("reply")
+        public String reply() {
+            return "Reply";
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.leanforge.game.slack.listener;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares routing a message through {@link MessageRouter} with matching every listener pattern.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoutingBenchmark {
+
+    @Param({"10", "150"})
+    private int listenerCount;
+
+    @Param({"command7 12", "just chatting about the game"})
+    private String text;
+
+    private final MessageRouter<Integer> router = new MessageRouter<>();
+    private final List<Pattern> patterns = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < listenerCount; i++) {
+            Pattern pattern = i % 10 == 9
+                    ? Pattern.compile("(?i)status of (\\w+) " + i)
+                    : Pattern.compile("command" + i + " (\\d+)");
+            patterns.add(pattern);
+            router.addRoute(pattern, i);
+        }
+    }
+
+    @Benchmark
+    public void router(Blackhole blackhole) {
+        router.route(text, (handler, matcher) -> blackhole.consume(handler));
+    }
+
+    @Benchmark
+    public void allPatterns(Blackhole blackhole) {
+        for (int i = 0; i < patterns.size(); i++) {
+            Matcher matcher = patterns.get(i).matcher(text);
+            if (matcher.matches()) {
+                blackhole.consume(i);
+            }
+        }
+    }
+}
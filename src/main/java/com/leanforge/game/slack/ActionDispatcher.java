@@ -0,0 +1,122 @@
+package com.leanforge.game.slack;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Calls action callbacks matching clicked buttons. In async mode callbacks run on a bounded pool,
+ * so the interaction request can be answered right away. Actions of one user are handled in click order.
+ */
+public class ActionDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActionDispatcher.class);
+
+    private final ActionRegistry registry;
+    private final OrderedExecutor executor;
+
+    private final AtomicLong handledCount = new AtomicLong();
+    private final AtomicLong totalHandlerNanos = new AtomicLong();
+    private final AtomicLong maxHandlerNanos = new AtomicLong();
+    private final AtomicLong totalQueueNanos = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    /**
+     * @param executor executor for async mode or null to handle actions on the calling thread
+     */
+    ActionDispatcher(ActionRegistry registry, OrderedExecutor executor) {
+        this.registry = registry;
+        this.executor = executor;
+    }
+
+    boolean isAsync() {
+        return executor != null;
+    }
+
+    CompletableFuture<Void> dispatch(ActionEvent event) {
+        SlackMessage message = new SlackMessage(event.getMessageTimestamp(), event.getChannelId(), null, event.getResponseUrl());
+        String userId = event.getUserId();
+        String actionName = event.getActionName();
+        String actionValue = event.getActionValue();
+        String callbackId = event.getCallbackId();
+
+        if (executor == null) {
+            fire(userId, message, actionName, actionValue, callbackId);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        long enqueuedAt = System.nanoTime();
+        CompletableFuture<Void> result = executor.submit(userId, () -> {
+            totalQueueNanos.addAndGet(System.nanoTime() - enqueuedAt);
+            fire(userId, message, actionName, actionValue, callbackId);
+            return null;
+        });
+        result.whenComplete((value, error) -> {
+            if (error instanceof RejectedExecutionException) {
+                rejectedCount.incrementAndGet();
+                logger.error("Can't handle action {}.{} of user {}", actionName, actionValue, userId, error);
+            }
+        });
+        return result;
+    }
+
+    void fire(String userId, SlackMessage parentMessage, String actionName, String actionValue, String callbackId) {
+        logger.debug("Firing action event: {}.{} ({})", actionName, actionValue, callbackId);
+        long start = System.nanoTime();
+        registry.take(actionName, actionValue, callbackId).forEach(actionCallback -> {
+            try {
+                actionCallback.handleMessage(parentMessage, userId, actionName, actionValue);
+            } catch (Exception e) {
+                logger.error("Can't handle action", e);
+            }
+        });
+        long duration = System.nanoTime() - start;
+
+        handledCount.incrementAndGet();
+        totalHandlerNanos.addAndGet(duration);
+        maxHandlerNanos.accumulateAndGet(duration, Math::max);
+    }
+
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * @return number of actions waiting for a worker, always 0 in sync mode
+     */
+    public int getQueueDepth() {
+        return executor == null ? 0 : executor.getQueueSize();
+    }
+
+    public long getHandledCount() {
+        return handledCount.get();
+    }
+
+    /**
+     * @return number of actions not handled, because the queue was full
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    public Duration getTotalHandlerTime() {
+        return Duration.ofNanos(totalHandlerNanos.get());
+    }
+
+    public Duration getMaxHandlerTime() {
+        return Duration.ofNanos(maxHandlerNanos.get());
+    }
+
+    /**
+     * @return total time actions waited for a worker in async mode
+     */
+    public Duration getTotalQueueTime() {
+        return Duration.ofNanos(totalQueueNanos.get());
+    }
+}
@@ -0,0 +1,85 @@
+package com.leanforge.game.slack;
+
+/**
+ * Fields of interactive message payload needed to dispatch an action.
+ * It's mutable, so a parser can fill the same instance for consecutive payloads.
+ */
+class ActionEvent {
+
+    private String userId;
+    private String actionName;
+    private String actionValue;
+    private String channelId;
+    private String messageTimestamp;
+    private String callbackId;
+    private String responseUrl;
+
+    void reset() {
+        userId = null;
+        actionName = null;
+        actionValue = null;
+        channelId = null;
+        messageTimestamp = null;
+        callbackId = null;
+        responseUrl = null;
+    }
+
+    String getUserId() {
+        return userId;
+    }
+
+    void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    String getActionName() {
+        return actionName;
+    }
+
+    void setActionName(String actionName) {
+        this.actionName = actionName;
+    }
+
+    String getActionValue() {
+        return actionValue;
+    }
+
+    void setActionValue(String actionValue) {
+        this.actionValue = actionValue;
+    }
+
+    String getChannelId() {
+        return channelId;
+    }
+
+    void setChannelId(String channelId) {
+        this.channelId = channelId;
+    }
+
+    String getMessageTimestamp() {
+        return messageTimestamp;
+    }
+
+    void setMessageTimestamp(String messageTimestamp) {
+        this.messageTimestamp = messageTimestamp;
+    }
+
+    String getCallbackId() {
+        return callbackId;
+    }
+
+    void setCallbackId(String callbackId) {
+        this.callbackId = callbackId;
+    }
+
+    /**
+     * @return url accepting delayed responses to the action or null when it's not present
+     */
+    String getResponseUrl() {
+        return responseUrl;
+    }
+
+    void setResponseUrl(String responseUrl) {
+        this.responseUrl = responseUrl;
+    }
+}
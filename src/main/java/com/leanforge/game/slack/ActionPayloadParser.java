@@ -0,0 +1,139 @@
+package com.leanforge.game.slack;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Reads interactive message payload in one pass, without building a tree.
+ * Only fields needed for dispatching are read, everything else is skipped.
+ */
+class ActionPayloadParser {
+
+    private final JsonFactory jsonFactory;
+
+    ActionPayloadParser(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    /**
+     * Fills the event with payload fields.
+     *
+     * @throws IllegalArgumentException when a required field is missing
+     */
+    ActionEvent parse(String payload, ActionEvent event) throws IOException {
+        if (payload == null) {
+            throw new IllegalArgumentException("Missing payload");
+        }
+
+        event.reset();
+        try (JsonParser parser = jsonFactory.createParser(payload)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "user":
+                        event.setUserId(readId(parser, value));
+                        break;
+                    case "channel":
+                        event.setChannelId(readId(parser, value));
+                        break;
+                    case "actions":
+                        readFirstAction(parser, value, event);
+                        break;
+                    case "message_ts":
+                        event.setMessageTimestamp(readText(parser, value));
+                        break;
+                    case "callback_id":
+                        event.setCallbackId(readText(parser, value));
+                        break;
+                    case "response_url":
+                        event.setResponseUrl(readText(parser, value));
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+        }
+
+        require(event.getUserId());
+        require(event.getActionName());
+        require(event.getActionValue());
+        require(event.getChannelId());
+        require(event.getMessageTimestamp());
+        require(event.getCallbackId());
+        return event;
+    }
+
+    static String readId(JsonParser parser, JsonToken token) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+
+        String id = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("id".equals(field)) {
+                id = readText(parser, value);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return id;
+    }
+
+    private static void readFirstAction(JsonParser parser, JsonToken token, ActionEvent event) throws IOException {
+        if (token != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+
+        JsonToken first = parser.nextToken();
+        if (first == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("name".equals(field)) {
+                    event.setActionName(readText(parser, value));
+                } else if ("value".equals(field)) {
+                    event.setActionValue(readText(parser, value));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } else if (first == JsonToken.END_ARRAY) {
+            return;
+        } else {
+            parser.skipChildren();
+        }
+
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            parser.skipChildren();
+        }
+    }
+
+    static String readText(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    static void expect(JsonToken actual, JsonToken expected) {
+        if (actual != expected) {
+            throw new IllegalArgumentException("Expected " + expected + " but was " + actual);
+        }
+    }
+
+    private static void require(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException();
+        }
+    }
+}
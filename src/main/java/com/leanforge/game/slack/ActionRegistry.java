@@ -0,0 +1,78 @@
+package com.leanforge.game.slack;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Index of action callbacks. Callbacks are found by action name and value, by action name only
+ * ({@link #ANY_VALUE}) or by callback id of the {@link SlackActions} that rendered the buttons.
+ * Callback id handlers are one-shot: they are removed on the first click.
+ * Lookups don't lock, so clicks are dispatched concurrently.
+ */
+class ActionRegistry {
+
+    static final String ANY_VALUE = "*";
+
+    private final ConcurrentMap<String, ConcurrentMap<String, List<SlackService.ActionCallback>>> byNameAndValue = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, SlackService.ActionCallback> byCallbackId = new ConcurrentHashMap<>();
+    private final List<SlackService.ActionCallback> global = new CopyOnWriteArrayList<>();
+
+    void add(SlackService.ActionCallback callback) {
+        global.add(callback);
+    }
+
+    void add(String actionName, String actionValue, SlackService.ActionCallback callback) {
+        byNameAndValue.computeIfAbsent(actionName, it -> new ConcurrentHashMap<>())
+                .computeIfAbsent(actionValue == null ? ANY_VALUE : actionValue, it -> new CopyOnWriteArrayList<>())
+                .add(callback);
+    }
+
+    void addOneShot(String callbackId, SlackService.ActionCallback callback) {
+        byCallbackId.put(callbackId, callback);
+    }
+
+    void removeOneShot(String callbackId) {
+        byCallbackId.remove(callbackId);
+    }
+
+    /**
+     * @return callbacks matching the action, one-shot callback is removed from the registry
+     */
+    List<SlackService.ActionCallback> take(String actionName, String actionValue, String callbackId) {
+        List<SlackService.ActionCallback> matching = null;
+
+        Map<String, List<SlackService.ActionCallback>> byValue = actionName == null ? null : byNameAndValue.get(actionName);
+        if (byValue != null) {
+            matching = append(matching, actionValue == null ? null : byValue.get(actionValue));
+            if (!ANY_VALUE.equals(actionValue)) {
+                matching = append(matching, byValue.get(ANY_VALUE));
+            }
+        }
+
+        SlackService.ActionCallback oneShot = callbackId == null ? null : byCallbackId.remove(callbackId);
+        if (oneShot != null) {
+            matching = append(matching, Collections.singletonList(oneShot));
+        }
+
+        matching = append(matching, global);
+        return matching == null ? Collections.emptyList() : matching;
+    }
+
+    private static List<SlackService.ActionCallback> append(List<SlackService.ActionCallback> matching, List<SlackService.ActionCallback> callbacks) {
+        if (callbacks == null || callbacks.isEmpty()) {
+            return matching;
+        }
+        if (matching == null) {
+            return callbacks;
+        }
+        List<SlackService.ActionCallback> merged = new ArrayList<>(matching.size() + callbacks.size());
+        merged.addAll(matching);
+        merged.addAll(callbacks);
+        return merged;
+    }
+}
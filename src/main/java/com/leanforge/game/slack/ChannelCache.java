@@ -0,0 +1,60 @@
+package com.leanforge.game.slack;
+
+import com.ullink.slack.simpleslackapi.SlackChannel;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Resolved channels used by outbound calls: channels by id and direct message channels by user id.
+ * Entries are loaded on first use and kept until the channel is renamed, archived or deleted, or the session reconnects.
+ * Loaders run outside of any lock, so a slow {@code im.open} doesn't block other users.
+ */
+class ChannelCache {
+
+    private final ConcurrentMap<String, SlackChannel> channels = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, SlackChannel> directChannels = new ConcurrentHashMap<>();
+
+    /**
+     * @return cached channel or the loaded one, null when the loader didn't find it
+     */
+    SlackChannel channel(String channelId, Function<String, SlackChannel> loader) {
+        return resolve(channels, channelId, loader);
+    }
+
+    SlackChannel directChannel(String userId, Function<String, SlackChannel> loader) {
+        return resolve(directChannels, userId, loader);
+    }
+
+    void invalidate(String channelId) {
+        if (channelId == null) {
+            return;
+        }
+        channels.remove(channelId);
+        directChannels.values().removeIf(channel -> channelId.equals(channel.getId()));
+    }
+
+    void clear() {
+        channels.clear();
+        directChannels.clear();
+    }
+
+    private static SlackChannel resolve(ConcurrentMap<String, SlackChannel> cache, String key, Function<String, SlackChannel> loader) {
+        if (key == null) {
+            return loader.apply(null);
+        }
+
+        SlackChannel channel = cache.get(key);
+        if (channel != null) {
+            return channel;
+        }
+
+        channel = loader.apply(key);
+        if (channel == null) {
+            return null;
+        }
+        SlackChannel previous = cache.putIfAbsent(key, channel);
+        return previous == null ? channel : previous;
+    }
+}
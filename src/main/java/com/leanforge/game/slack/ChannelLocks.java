@@ -0,0 +1,27 @@
+package com.leanforge.game.slack;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes operations per channel, while operations on different channels run in parallel.
+ * Locks are reentrant, so an operation may call other operations on the same channel.
+ */
+class ChannelLocks {
+
+    static final String GLOBAL = "*";
+
+    private final ConcurrentMap<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+    <T> T inChannel(String channelId, Supplier<T> action) {
+        ReentrantLock lock = locks.computeIfAbsent(channelId == null ? GLOBAL : channelId, it -> new ReentrantLock(true));
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
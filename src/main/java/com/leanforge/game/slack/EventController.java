@@ -0,0 +1,81 @@
+package com.leanforge.game.slack;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.time.Clock;
+
+/**
+ * Receives events from slack Events API, so events can be handled by several instances behind a load balancer.
+ * Enabled with {@code slack.events.http=true}, then message and reaction events aren't read from the websocket.
+ */
+@RestController
+@RequestMapping(value = "/slack/events", consumes = "application/json")
+@ConditionalOnProperty(name = "slack.events.http", havingValue = "true")
+public class EventController {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventController.class);
+
+    @Autowired
+    SlackService slackService;
+
+    @Value("${slack.signing-secret:}")
+    String signingSecret = "";
+
+    /**
+     * Disable only to post local fixtures, requests of unknown origin are handled then.
+     */
+    @Value("${slack.events.verify-signature:true}")
+    boolean verifySignature = true;
+
+    @Value("${slack.events.signature-tolerance-s:300}")
+    long signatureToleranceSeconds = 300;
+
+    private final EventPayloadParser payloadParser = new EventPayloadParser(new JsonFactory());
+    private SlackSignatureVerifier signatureVerifier;
+
+    @PostConstruct
+    void init() {
+        if (verifySignature && signingSecret.isEmpty()) {
+            throw new IllegalStateException("slack.signing-secret is required to verify events");
+        }
+        if (verifySignature) {
+            signatureVerifier = new SlackSignatureVerifier(signingSecret, signatureToleranceSeconds, Clock.systemUTC());
+        }
+    }
+
+    @PostMapping
+    public ResponseEntity<String> handleEvent(@RequestHeader(value = "X-Slack-Request-Timestamp", required = false) String timestamp,
+                                              @RequestHeader(value = "X-Slack-Signature", required = false) String signature,
+                                              @RequestBody String body) throws IOException {
+        if (signatureVerifier != null && !signatureVerifier.verify(timestamp, body, signature)) {
+            logger.warn("Rejecting event with invalid signature");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        logger.debug("Received event: {}", body);
+        EventPayload event = payloadParser.parse(body, new EventPayload());
+        if (EventPayload.URL_VERIFICATION.equals(event.getType())) {
+            return ResponseEntity.ok().contentType(MediaType.TEXT_PLAIN).body(event.getChallenge());
+        }
+
+        if (EventPayload.EVENT_CALLBACK.equals(event.getType())) {
+            slackService.handleEvent(event);
+        }
+        return ResponseEntity.ok().build();
+    }
+}
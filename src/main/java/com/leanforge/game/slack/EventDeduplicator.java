@@ -0,0 +1,19 @@
+package com.leanforge.game.slack;
+
+/**
+ * Remembers recently handled events, so an event delivered twice, after a reconnect or a retry of Events API,
+ * is handled once. The default {@link LocalEventDeduplicator} works within one process. Several instances
+ * behind a load balancer can share a backend, like a key-value store with expiring keys, by declaring
+ * their own implementation as a bean.
+ */
+public interface EventDeduplicator {
+
+    /**
+     * Marks the event as seen.
+     *
+     * @param timestamp slack timestamp of the event
+     * @param eventType type of the event, like {@code message} or {@code reaction_added}
+     * @return true when the event wasn't seen before and should be handled
+     */
+    boolean firstSeen(String channelId, String timestamp, String eventType);
+}
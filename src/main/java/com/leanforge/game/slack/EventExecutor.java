@@ -0,0 +1,152 @@
+package com.leanforge.game.slack;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves handling of slack events off the websocket thread. Events with the same key
+ * (a channel or a thread) are handled in order of arrival, other events in parallel.
+ * When too many events are pending, intake either blocks or drops new events, depending on {@link OverflowPolicy}.
+ */
+public class EventExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventExecutor.class);
+
+    public enum OverflowPolicy {
+        /**
+         * Websocket thread waits until an event is handled. Nothing is lost, but reception of new events stalls.
+         */
+        BLOCK,
+        /**
+         * New events are dropped until pending ones are handled.
+         */
+        DROP
+    }
+
+    private final OrderedExecutor executor;
+    private final Semaphore permits;
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+
+    private final AtomicLong handledCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong totalLagMillis = new AtomicLong();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+    private volatile long lastLagMillis;
+
+    /**
+     * @param executor executor of handlers or null to handle events on the websocket thread
+     */
+    EventExecutor(OrderedExecutor executor, int capacity, OverflowPolicy overflowPolicy) {
+        this.executor = executor;
+        this.capacity = capacity;
+        this.permits = new Semaphore(capacity);
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * @param eventTimestamp slack timestamp of the event, used to report lag. When null, intake time is used.
+     */
+    void execute(String key, String eventTimestamp, Runnable handler) {
+        long eventTime = eventTimeMillis(eventTimestamp);
+        if (executor == null) {
+            handle(eventTime, handler);
+            return;
+        }
+
+        if (!acquire()) {
+            long dropped = droppedCount.incrementAndGet();
+            logger.warn("Event queue is full, dropping event in {} ({} dropped so far)", key, dropped);
+            return;
+        }
+
+        executor.submit(key, () -> {
+            handle(eventTime, handler);
+            return null;
+        }).whenComplete((value, error) -> permits.release());
+    }
+
+    private boolean acquire() {
+        if (overflowPolicy == OverflowPolicy.DROP) {
+            return permits.tryAcquire();
+        }
+
+        try {
+            permits.acquire();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void handle(long eventTime, Runnable handler) {
+        long lag = Math.max(0, System.currentTimeMillis() - eventTime);
+        lastLagMillis = lag;
+        totalLagMillis.addAndGet(lag);
+        maxLagMillis.accumulateAndGet(lag, Math::max);
+
+        try {
+            handler.run();
+        } catch (Exception e) {
+            logger.error("Can't handle event", e);
+        } finally {
+            handledCount.incrementAndGet();
+        }
+    }
+
+    private static long eventTimeMillis(String eventTimestamp) {
+        if (eventTimestamp != null) {
+            try {
+                return (long) (Double.parseDouble(eventTimestamp) * 1000);
+            } catch (NumberFormatException e) {
+                logger.debug("Unexpected event timestamp {}", eventTimestamp);
+            }
+        }
+        return System.currentTimeMillis();
+    }
+
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * @return number of events accepted, but not handled yet
+     */
+    public int getQueueDepth() {
+        return executor == null ? 0 : capacity - permits.availablePermits();
+    }
+
+    public long getHandledCount() {
+        return handledCount.get();
+    }
+
+    /**
+     * @return number of events dropped with {@link OverflowPolicy#DROP}
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return time between the event and start of its handling, for the latest handled event
+     */
+    public Duration getLastLag() {
+        return Duration.ofMillis(lastLagMillis);
+    }
+
+    public Duration getMaxLag() {
+        return Duration.ofMillis(maxLagMillis.get());
+    }
+
+    public Duration getTotalLag() {
+        return Duration.ofMillis(totalLagMillis.get());
+    }
+}
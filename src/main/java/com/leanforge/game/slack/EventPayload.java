@@ -0,0 +1,161 @@
+package com.leanforge.game.slack;
+
+/**
+ * Fields of Events API payload needed to dispatch message and reaction events.
+ * It's mutable, so a parser can fill the same instance for consecutive payloads.
+ */
+class EventPayload {
+
+    static final String URL_VERIFICATION = "url_verification";
+    static final String EVENT_CALLBACK = "event_callback";
+    static final String MESSAGE = "message";
+    static final String REACTION_ADDED = "reaction_added";
+    static final String REACTION_REMOVED = "reaction_removed";
+
+    private String type;
+    private String challenge;
+    private String eventType;
+    private String subtype;
+    private String channelId;
+    private String userId;
+    private String botId;
+    private String text;
+    private String timestamp;
+    private String threadTimestamp;
+    private String reaction;
+    private String itemType;
+    private String itemTimestamp;
+    private String eventTimestamp;
+
+    void reset() {
+        type = null;
+        challenge = null;
+        eventType = null;
+        subtype = null;
+        channelId = null;
+        userId = null;
+        botId = null;
+        text = null;
+        timestamp = null;
+        threadTimestamp = null;
+        reaction = null;
+        itemType = null;
+        itemTimestamp = null;
+        eventTimestamp = null;
+    }
+
+    String getType() {
+        return type;
+    }
+
+    void setType(String type) {
+        this.type = type;
+    }
+
+    String getChallenge() {
+        return challenge;
+    }
+
+    void setChallenge(String challenge) {
+        this.challenge = challenge;
+    }
+
+    String getEventType() {
+        return eventType;
+    }
+
+    void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    String getSubtype() {
+        return subtype;
+    }
+
+    void setSubtype(String subtype) {
+        this.subtype = subtype;
+    }
+
+    /**
+     * @return channel of the message or of the reacted item
+     */
+    String getChannelId() {
+        return channelId;
+    }
+
+    void setChannelId(String channelId) {
+        this.channelId = channelId;
+    }
+
+    String getUserId() {
+        return userId;
+    }
+
+    void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    String getBotId() {
+        return botId;
+    }
+
+    void setBotId(String botId) {
+        this.botId = botId;
+    }
+
+    String getText() {
+        return text;
+    }
+
+    void setText(String text) {
+        this.text = text;
+    }
+
+    String getTimestamp() {
+        return timestamp;
+    }
+
+    void setTimestamp(String timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    String getThreadTimestamp() {
+        return threadTimestamp;
+    }
+
+    void setThreadTimestamp(String threadTimestamp) {
+        this.threadTimestamp = threadTimestamp;
+    }
+
+    String getReaction() {
+        return reaction;
+    }
+
+    void setReaction(String reaction) {
+        this.reaction = reaction;
+    }
+
+    String getItemType() {
+        return itemType;
+    }
+
+    void setItemType(String itemType) {
+        this.itemType = itemType;
+    }
+
+    String getItemTimestamp() {
+        return itemTimestamp;
+    }
+
+    void setItemTimestamp(String itemTimestamp) {
+        this.itemTimestamp = itemTimestamp;
+    }
+
+    String getEventTimestamp() {
+        return eventTimestamp;
+    }
+
+    void setEventTimestamp(String eventTimestamp) {
+        this.eventTimestamp = eventTimestamp;
+    }
+}
@@ -0,0 +1,136 @@
+package com.leanforge.game.slack;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+import static com.leanforge.game.slack.ActionPayloadParser.expect;
+import static com.leanforge.game.slack.ActionPayloadParser.readId;
+import static com.leanforge.game.slack.ActionPayloadParser.readText;
+
+/**
+ * Reads Events API payload in one pass, without building a tree.
+ * Only fields of message and reaction events are read, everything else is skipped.
+ */
+class EventPayloadParser {
+
+    private final JsonFactory jsonFactory;
+
+    EventPayloadParser(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    /**
+     * Fills the event with payload fields.
+     *
+     * @throws IllegalArgumentException when payload isn't a json object or has no type
+     */
+    EventPayload parse(String payload, EventPayload event) throws IOException {
+        if (payload == null) {
+            throw new IllegalArgumentException("Missing payload");
+        }
+
+        event.reset();
+        try (JsonParser parser = jsonFactory.createParser(payload)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "type":
+                        event.setType(readText(parser, value));
+                        break;
+                    case "challenge":
+                        event.setChallenge(readText(parser, value));
+                        break;
+                    case "event":
+                        readEvent(parser, value, event);
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+        }
+
+        if (event.getType() == null) {
+            throw new IllegalArgumentException("Missing type");
+        }
+        return event;
+    }
+
+    private static void readEvent(JsonParser parser, JsonToken token, EventPayload event) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "type":
+                    event.setEventType(readText(parser, value));
+                    break;
+                case "subtype":
+                    event.setSubtype(readText(parser, value));
+                    break;
+                case "channel":
+                    event.setChannelId(value == JsonToken.START_OBJECT ? readId(parser, value) : readText(parser, value));
+                    break;
+                case "user":
+                    event.setUserId(value == JsonToken.START_OBJECT ? readId(parser, value) : readText(parser, value));
+                    break;
+                case "bot_id":
+                    event.setBotId(readText(parser, value));
+                    break;
+                case "text":
+                    event.setText(readText(parser, value));
+                    break;
+                case "ts":
+                    event.setTimestamp(readText(parser, value));
+                    break;
+                case "thread_ts":
+                    event.setThreadTimestamp(readText(parser, value));
+                    break;
+                case "event_ts":
+                    event.setEventTimestamp(readText(parser, value));
+                    break;
+                case "reaction":
+                    event.setReaction(readText(parser, value));
+                    break;
+                case "item":
+                    readItem(parser, value, event);
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+    }
+
+    private static void readItem(JsonParser parser, JsonToken token, EventPayload event) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "type":
+                    event.setItemType(readText(parser, value));
+                    break;
+                case "channel":
+                    event.setChannelId(readText(parser, value));
+                    break;
+                case "ts":
+                    event.setItemTimestamp(readText(parser, value));
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+    }
+}
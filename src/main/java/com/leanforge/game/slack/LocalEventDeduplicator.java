@@ -0,0 +1,152 @@
+package com.leanforge.game.slack;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers events of the last window in two generations of 64 bit hashes. The current generation
+ * becomes the previous one when the window ends or when it's full, so memory stays bounded by the capacity.
+ * Each event is remembered for at least one window only while fewer than {@code capacity} events arrive per window,
+ * under heavier traffic older events are forgotten early and their redelivery isn't detected.
+ * Distinct events are mistaken for duplicates only on a 64 bit hash collision.
+ */
+public class LocalEventDeduplicator implements EventDeduplicator {
+
+    private final long windowNanos;
+    private final int capacity;
+    private final LongSupplier nanoClock;
+
+    private HashSet current;
+    private HashSet previous;
+    private long rotatedAt;
+
+    /**
+     * @param capacity max number of events remembered in one window, it should exceed the number of events expected in a window
+     */
+    public LocalEventDeduplicator(long windowMillis, int capacity) {
+        this(windowMillis, capacity, System::nanoTime);
+    }
+
+    LocalEventDeduplicator(long windowMillis, int capacity, LongSupplier nanoClock) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.capacity = capacity;
+        this.nanoClock = nanoClock;
+        this.current = new HashSet(capacity);
+        this.previous = new HashSet(capacity);
+        this.rotatedAt = nanoClock.getAsLong();
+    }
+
+    @Override
+    public synchronized boolean firstSeen(String channelId, String timestamp, String eventType) {
+        long key = hash(channelId, timestamp, eventType);
+        long now = nanoClock.getAsLong();
+        if (now - rotatedAt >= windowNanos || current.size() >= capacity) {
+            rotate(now);
+        }
+
+        return !previous.contains(key) && current.add(key);
+    }
+
+    private void rotate(long now) {
+        HashSet cleared = previous;
+        cleared.clear();
+        if (now - rotatedAt >= 2 * windowNanos) {
+            current.clear();
+        }
+        previous = current;
+        current = cleared;
+        rotatedAt = now;
+    }
+
+    static long hash(String channelId, String timestamp, String eventType) {
+        long hash = 1125899906842597L;
+        hash = hash(hash, channelId);
+        hash = hash(hash, timestamp);
+        hash = hash(hash, eventType);
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static long hash(long hash, String value) {
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                hash = 31 * hash + value.charAt(i);
+            }
+        }
+        return 31 * hash + 0x1f;
+    }
+
+    /**
+     * Open addressing set of longs, zero marks an empty slot.
+     */
+    private static class HashSet {
+        private final long[] slots;
+        private final int mask;
+        private int size;
+        private boolean containsZero;
+
+        HashSet(int capacity) {
+            int length = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1) << 1;
+            this.slots = new long[length];
+            this.mask = length - 1;
+        }
+
+        boolean contains(long key) {
+            if (key == 0) {
+                return containsZero;
+            }
+            for (int i = (int) key & mask; ; i = (i + 1) & mask) {
+                long slot = slots[i];
+                if (slot == 0) {
+                    return false;
+                }
+                if (slot == key) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * @return false when the key was already present
+         */
+        boolean add(long key) {
+            if (key == 0) {
+                if (containsZero) {
+                    return false;
+                }
+                containsZero = true;
+                size++;
+                return true;
+            }
+            for (int i = (int) key & mask; ; i = (i + 1) & mask) {
+                long slot = slots[i];
+                if (slot == 0) {
+                    slots[i] = key;
+                    size++;
+                    return true;
+                }
+                if (slot == key) {
+                    return false;
+                }
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            if (size > 0) {
+                Arrays.fill(slots, 0);
+                size = 0;
+                containsZero = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.leanforge.game.slack;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Combines messages sent to the same channel, or thread, within a short window into one message.
+ * A batch is sent when its window ends, when it reaches the size limit or when it's flushed.
+ * Batches are taken out under a lock and queued, the queue is drained outside of it by one thread at a time,
+ * so messages of a channel are sent in order they were added and a slow sender doesn't block new messages.
+ */
+class MessageAggregator {
+
+    @FunctionalInterface
+    interface Sender {
+        /**
+         * @param threadId thread timestamp or null for channel messages
+         */
+        CompletableFuture<SlackMessage> send(String channelId, String threadId, String text);
+    }
+
+    static final String SEPARATOR = "\n";
+
+    private final Sender sender;
+    private final long windowMillis;
+    private final int maxMessages;
+    private final int maxLength;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "slack-message-aggregator");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<String, Batch> batches = new LinkedHashMap<>();
+    private final Queue<Batch> ready = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger work = new AtomicInteger();
+
+    MessageAggregator(Sender sender, long windowMillis, int maxMessages, int maxLength) {
+        this.sender = sender;
+        this.windowMillis = windowMillis;
+        this.maxMessages = maxMessages;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * @return future of the combined message containing this text
+     */
+    CompletableFuture<SlackMessage> add(String channelId, String threadId, String text) {
+        CompletableFuture<SlackMessage> future = enqueue(channelId, threadId, text);
+        sendReady();
+        return future;
+    }
+
+    /**
+     * Sends pending messages of the channel and its threads right away.
+     *
+     * @return future completed when all of them are sent
+     */
+    CompletableFuture<Void> flush(String channelId) {
+        CompletableFuture<Void> flushed = detachAll(batch -> batch.channelId.equals(channelId));
+        sendReady();
+        return flushed;
+    }
+
+    CompletableFuture<Void> flushAll() {
+        CompletableFuture<Void> flushed = detachAll(batch -> true);
+        sendReady();
+        return flushed;
+    }
+
+    synchronized int getPendingCount() {
+        return batches.values().stream().mapToInt(batch -> batch.messageCount).sum();
+    }
+
+    void shutdown() {
+        flushAll();
+        scheduler.shutdown();
+    }
+
+    private synchronized CompletableFuture<SlackMessage> enqueue(String channelId, String threadId, String text) {
+        String key = threadId == null ? channelId : channelId + ":" + threadId;
+        Batch batch = batches.get(key);
+        if (batch != null && !batch.fits(text)) {
+            detach(key);
+            batch = null;
+        }
+
+        if (batch == null) {
+            Batch created = new Batch(channelId, threadId);
+            batches.put(key, created);
+            scheduler.schedule(() -> flushBatch(key, created), windowMillis, TimeUnit.MILLISECONDS);
+            batch = created;
+        }
+
+        batch.add(text);
+        if (batch.messageCount >= maxMessages) {
+            detach(key);
+        }
+        return batch.future;
+    }
+
+    private synchronized CompletableFuture<Void> detachAll(Predicate<Batch> filter) {
+        List<CompletableFuture<SlackMessage>> detached = new ArrayList<>();
+        new ArrayList<>(batches.keySet()).stream()
+                .filter(key -> filter.test(batches.get(key)))
+                .forEach(key -> detached.add(detach(key)));
+        return CompletableFuture.allOf(detached.toArray(new CompletableFuture<?>[0]));
+    }
+
+    private void flushBatch(String key, Batch batch) {
+        synchronized (this) {
+            if (batches.get(key) != batch) {
+                return;
+            }
+            detach(key);
+        }
+        sendReady();
+    }
+
+    private CompletableFuture<SlackMessage> detach(String key) {
+        Batch batch = batches.remove(key);
+        ready.add(batch);
+        return batch.future;
+    }
+
+    /**
+     * Sends queued batches. When another thread is already sending, it sends them instead.
+     */
+    private void sendReady() {
+        if (work.getAndIncrement() != 0) {
+            return;
+        }
+
+        do {
+            Batch batch;
+            while ((batch = ready.poll()) != null) {
+                send(batch);
+            }
+        } while (work.decrementAndGet() != 0);
+    }
+
+    private void send(Batch batch) {
+        CompletableFuture<SlackMessage> future = batch.future;
+        try {
+            sender.send(batch.channelId, batch.threadId, batch.text.toString()).whenComplete((value, error) -> {
+                if (error != null) {
+                    future.completeExceptionally(error);
+                } else {
+                    future.complete(value);
+                }
+            });
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    private class Batch {
+        private final String channelId;
+        private final String threadId;
+        private final StringBuilder text = new StringBuilder();
+        private final CompletableFuture<SlackMessage> future = new CompletableFuture<>();
+        private int messageCount;
+
+        Batch(String channelId, String threadId) {
+            this.channelId = channelId;
+            this.threadId = threadId;
+        }
+
+        /**
+         * A text longer than the limit is sent alone.
+         */
+        boolean fits(String message) {
+            return text.length() + SEPARATOR.length() + message.length() <= maxLength;
+        }
+
+        void add(String message) {
+            if (messageCount > 0) {
+                text.append(SEPARATOR);
+            }
+            text.append(message);
+            messageCount++;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.leanforge.game.slack;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Coalesces frequent updates of the same message. Only the latest pending text is sent
+ * and each message is updated at most once per interval.
+ */
+class MessageUpdateCoalescer {
+
+    private final BiFunction<SlackMessage, String, CompletableFuture<SlackMessage>> updater;
+    private final long intervalNanos;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "slack-update-coalescer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<String, PendingUpdate> pending = new HashMap<>();
+    private final Map<String, Long> lastUpdates = new HashMap<>();
+
+    MessageUpdateCoalescer(BiFunction<SlackMessage, String, CompletableFuture<SlackMessage>> updater, long intervalMillis) {
+        this.updater = updater;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+    }
+
+    /**
+     * @return future completed when this text, or a newer one, is applied
+     */
+    synchronized CompletableFuture<SlackMessage> update(SlackMessage message, String text) {
+        String key = message.getChannelId() + ":" + message.getTimestamp();
+        PendingUpdate update = pending.get(key);
+        if (update != null) {
+            update.text = text;
+            return update.future;
+        }
+
+        update = new PendingUpdate(message, text);
+        pending.put(key, update);
+
+        Long lastUpdate = lastUpdates.get(key);
+        long delay = lastUpdate == null ? 0 : Math.max(0, lastUpdate + intervalNanos - System.nanoTime());
+        scheduler.schedule(() -> flush(key), delay, TimeUnit.NANOSECONDS);
+
+        return update.future;
+    }
+
+    private void flush(String key) {
+        PendingUpdate update;
+        synchronized (this) {
+            update = pending.remove(key);
+            if (update == null) {
+                return;
+            }
+            long now = System.nanoTime();
+            lastUpdates.put(key, now);
+            scheduler.schedule(() -> forget(key, now), intervalNanos, TimeUnit.NANOSECONDS);
+        }
+
+        CompletableFuture<SlackMessage> future = update.future;
+        try {
+            updater.apply(update.message, update.text).whenComplete((value, error) -> {
+                if (error != null) {
+                    future.completeExceptionally(error);
+                } else {
+                    future.complete(value);
+                }
+            });
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    private synchronized void forget(String key, long updatedAt) {
+        lastUpdates.remove(key, updatedAt);
+    }
+
+    void shutdown() {
+        scheduler.shutdown();
+    }
+
+    private static class PendingUpdate {
+        private final SlackMessage message;
+        private final CompletableFuture<SlackMessage> future = new CompletableFuture<>();
+        private String text;
+
+        PendingUpdate(SlackMessage message, String text) {
+            this.message = message;
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.leanforge.game.slack;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs tasks on a bounded thread pool, or on virtual threads. Tasks submitted with the same key
+ * are run one after another, in submission order. Tasks with different keys run in parallel.
+ * Tasks waiting for their turn count against the queue capacity together with tasks queued in the pool.
+ * When the capacity is exceeded, returned future is completed with {@link RejectedExecutionException}.
+ */
+class OrderedExecutor {
+
+    private final ExecutorService executor;
+    private final int queueCapacity;
+    private final ConcurrentMap<String, CompletableFuture<?>> tails = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    OrderedExecutor(String name, int threads, int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new NamedThreadFactory(name));
+        pool.allowCoreThreadTimeOut(true);
+        executor = pool;
+    }
+
+    private OrderedExecutor(ExecutorService executor, int queueCapacity) {
+        this.executor = executor;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Runs every task on a new virtual thread when the runtime supports them, otherwise on a pool of daemon platform threads.
+     * Virtual threads aren't pooled nor queued, so callers have to limit the number of pending tasks themselves.
+     */
+    static OrderedExecutor virtual(String name, int threads, int queueCapacity) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, name + "-", 1L);
+            ThreadFactory threadFactory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            return new OrderedExecutor((ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, threadFactory), queueCapacity);
+        } catch (ReflectiveOperationException e) {
+            // virtual threads aren't available before java 21
+            return new OrderedExecutor(name, threads, queueCapacity);
+        }
+    }
+
+    <T> CompletableFuture<T> submit(String key, Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        if (pending.incrementAndGet() > queueCapacity) {
+            pending.decrementAndGet();
+            result.completeExceptionally(new RejectedExecutionException("Too many pending tasks, limit is " + queueCapacity));
+            return result;
+        }
+
+        Runnable runnable = () -> {
+            pending.decrementAndGet();
+            try {
+                result.complete(task.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        };
+
+        CompletableFuture<?> previous = tails.put(key, result);
+        result.whenComplete((value, error) -> tails.remove(key, result));
+
+        if (previous == null) {
+            execute(runnable, result);
+        } else {
+            previous.whenComplete((value, error) -> execute(runnable, result));
+        }
+
+        return result;
+    }
+
+    /**
+     * @return number of tasks waiting for execution, including the ones waiting for a previous task of their key
+     */
+    int getQueueSize() {
+        return pending.get();
+    }
+
+    int getActiveCount() {
+        return executor instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor) executor).getActiveCount() : 0;
+    }
+
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private void execute(Runnable runnable, CompletableFuture<?> result) {
+        try {
+            executor.execute(runnable);
+        } catch (RejectedExecutionException e) {
+            pending.decrementAndGet();
+            result.completeExceptionally(e);
+        }
+    }
+
+    private static class NamedThreadFactory implements ThreadFactory {
+        private final String name;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        NamedThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
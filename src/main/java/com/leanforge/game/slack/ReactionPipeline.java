@@ -0,0 +1,141 @@
+package com.leanforge.game.slack;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Queues reaction changes and applies them in background.
+ * Reactions of one message are applied in order, so they are displayed in requested order.
+ * Reactions of different messages are applied concurrently.
+ * Repeated pending changes are deduplicated and pending add/remove pairs of the same reaction cancel each other.
+ */
+class ReactionPipeline {
+
+    private final OrderedExecutor executor;
+    private final ReactionCall reactionCall;
+    private final boolean preserveOrder;
+
+    private final Map<String, LinkedHashMap<String, PendingReaction>> pending = new HashMap<>();
+
+    ReactionPipeline(OrderedExecutor executor, ReactionCall reactionCall, boolean preserveOrder) {
+        this.executor = executor;
+        this.reactionCall = reactionCall;
+        this.preserveOrder = preserveOrder;
+    }
+
+    CompletableFuture<Void> add(SlackMessage message, String... reactionCodes) {
+        return enqueueAll(message, reactionCodes, true);
+    }
+
+    CompletableFuture<Void> remove(SlackMessage message, String... reactionCodes) {
+        return enqueueAll(message, reactionCodes, false);
+    }
+
+    private CompletableFuture<Void> enqueueAll(SlackMessage message, String[] reactionCodes, boolean add) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(reactionCodes.length);
+        for (String reactionCode : reactionCodes) {
+            futures.add(enqueue(message, reactionCode, add));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+    }
+
+    private CompletableFuture<Void> enqueue(SlackMessage message, String reactionCode, boolean add) {
+        String key = preserveOrder
+                ? message.getChannelId() + ":" + message.getTimestamp()
+                : message.getChannelId() + ":" + message.getTimestamp() + ":" + reactionCode;
+
+        synchronized (this) {
+            LinkedHashMap<String, PendingReaction> queue = pending.computeIfAbsent(key, it -> new LinkedHashMap<>());
+            PendingReaction existing = queue.get(reactionCode);
+
+            if (existing != null && existing.add == add) {
+                return existing.future;
+            }
+
+            if (existing != null) {
+                queue.remove(reactionCode);
+                removeIfEmpty(key, queue);
+                existing.future.complete(null);
+                return CompletableFuture.completedFuture(null);
+            }
+
+            PendingReaction reaction = new PendingReaction(message, reactionCode, add);
+            queue.put(reactionCode, reaction);
+
+            executor.submit(key, () -> applyNext(key))
+                    .whenComplete((value, error) -> {
+                        if (error instanceof RejectedExecutionException) {
+                            discard(key, reaction);
+                            reaction.future.completeExceptionally(error);
+                        }
+                    });
+
+            return reaction.future;
+        }
+    }
+
+    private Void applyNext(String key) {
+        PendingReaction reaction = takeNext(key);
+        if (reaction == null) {
+            return null;
+        }
+
+        try {
+            reactionCall.apply(reaction.message, reaction.reactionCode, reaction.add);
+            reaction.future.complete(null);
+        } catch (Exception e) {
+            reaction.future.completeExceptionally(e);
+        }
+        return null;
+    }
+
+    private synchronized PendingReaction takeNext(String key) {
+        LinkedHashMap<String, PendingReaction> queue = pending.get(key);
+        if (queue == null) {
+            return null;
+        }
+
+        Iterator<PendingReaction> iterator = queue.values().iterator();
+        PendingReaction next = iterator.next();
+        iterator.remove();
+        removeIfEmpty(key, queue);
+        return next;
+    }
+
+    private synchronized void discard(String key, PendingReaction reaction) {
+        LinkedHashMap<String, PendingReaction> queue = pending.get(key);
+        if (queue != null && queue.remove(reaction.reactionCode, reaction)) {
+            removeIfEmpty(key, queue);
+        }
+    }
+
+    private void removeIfEmpty(String key, Map<String, PendingReaction> queue) {
+        if (queue.isEmpty()) {
+            pending.remove(key);
+        }
+    }
+
+    @FunctionalInterface
+    interface ReactionCall {
+        void apply(SlackMessage message, String reactionCode, boolean add);
+    }
+
+    private static class PendingReaction {
+        private final SlackMessage message;
+        private final String reactionCode;
+        private final boolean add;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        PendingReaction(SlackMessage message, String reactionCode, boolean add) {
+            this.message = message;
+            this.reactionCode = reactionCode;
+            this.add = add;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.leanforge.game.slack;
+
+/**
+ * Slack Web API methods used by {@link SlackService} with their rate limit tiers.
+ *
+ * @see <a href="https://api.slack.com/docs/rate-limits">Slack rate limits</a>
+ */
+enum SlackApiMethod {
+    /**
+     * Special tier: about one message per second per channel, limited by channel budget.
+     */
+    CHAT_POST_MESSAGE("chat.postMessage", 0),
+    CHAT_UPDATE("chat.update", 50),
+    REACTIONS_ADD("reactions.add", 50),
+    REACTIONS_REMOVE("reactions.remove", 50),
+    IM_OPEN("im.open", 50);
+
+    private final String methodName;
+    private final int requestsPerMinute;
+
+    SlackApiMethod(String methodName, int requestsPerMinute) {
+        this.methodName = methodName;
+        this.requestsPerMinute = requestsPerMinute;
+    }
+
+    String getMethodName() {
+        return methodName;
+    }
+
+    /**
+     * @return tier budget or 0 when method is limited only per channel
+     */
+    int getRequestsPerMinute() {
+        return requestsPerMinute;
+    }
+
+    boolean isChannelLimited() {
+        return this == CHAT_POST_MESSAGE;
+    }
+}
@@ -0,0 +1,196 @@
+package com.leanforge.game.slack;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Progress of one message sent to many channels or users. At most {@code parallelism} sends are in flight,
+ * the next target is sent when one of them completes. Each target has its own result,
+ * so a failure of one target doesn't affect the others.
+ */
+public class SlackBroadcast {
+
+    private final Map<Target, CompletableFuture<SlackMessage>> results;
+    private final Iterator<Target> pending;
+    private final int parallelism;
+    private final Function<Target, CompletableFuture<SlackMessage>> sender;
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+    private final AtomicInteger sentCount = new AtomicInteger();
+    private final AtomicInteger failedCount = new AtomicInteger();
+    private final AtomicInteger work = new AtomicInteger();
+    private int inFlight;
+
+    SlackBroadcast(Collection<Target> targets, int parallelism, Function<Target, CompletableFuture<SlackMessage>> sender) {
+        Map<Target, CompletableFuture<SlackMessage>> results = new LinkedHashMap<>();
+        targets.forEach(target -> results.put(target, new CompletableFuture<>()));
+        this.results = Collections.unmodifiableMap(results);
+        this.pending = new ArrayList<>(results.keySet()).iterator();
+        this.parallelism = Math.max(1, parallelism);
+        this.sender = sender;
+    }
+
+    SlackBroadcast start() {
+        if (results.isEmpty()) {
+            completion.complete(null);
+        }
+        sendNext();
+        return this;
+    }
+
+    /**
+     * @return result of every target, in order of the given targets
+     */
+    public Map<Target, CompletableFuture<SlackMessage>> getResults() {
+        return results;
+    }
+
+    /**
+     * @return future completed when all targets are done, it never completes exceptionally
+     */
+    public CompletableFuture<Void> completion() {
+        return completion;
+    }
+
+    public int getTargetCount() {
+        return results.size();
+    }
+
+    public int getSentCount() {
+        return sentCount.get();
+    }
+
+    public int getFailedCount() {
+        return failedCount.get();
+    }
+
+    public int getPendingCount() {
+        return results.size() - sentCount.get() - failedCount.get();
+    }
+
+    /**
+     * Sends targets until the limit of sends in flight is reached. Sends completed synchronously
+     * continue the loop instead of recursing.
+     */
+    private void sendNext() {
+        if (work.getAndIncrement() != 0) {
+            return;
+        }
+
+        do {
+            Target target;
+            while ((target = nextTarget()) != null) {
+                send(target);
+            }
+        } while (work.decrementAndGet() != 0);
+    }
+
+    private synchronized Target nextTarget() {
+        if (inFlight >= parallelism || !pending.hasNext()) {
+            return null;
+        }
+        inFlight++;
+        return pending.next();
+    }
+
+    private synchronized void release() {
+        inFlight--;
+    }
+
+    private void send(Target target) {
+        CompletableFuture<SlackMessage> sent;
+        try {
+            sent = sender.apply(target);
+        } catch (Exception e) {
+            sent = new CompletableFuture<>();
+            sent.completeExceptionally(e);
+        }
+
+        sent.whenComplete((message, error) -> {
+            if (error == null) {
+                sentCount.incrementAndGet();
+                results.get(target).complete(message);
+            } else {
+                failedCount.incrementAndGet();
+                results.get(target).completeExceptionally(error);
+            }
+            if (getPendingCount() == 0) {
+                completion.complete(null);
+            }
+            release();
+            sendNext();
+        });
+    }
+
+    /**
+     * Channel or user receiving the broadcast. Users get the message as a direct message.
+     */
+    public static final class Target {
+        private final String id;
+        private final boolean user;
+
+        private Target(String id, boolean user) {
+            this.id = Objects.requireNonNull(id);
+            this.user = user;
+        }
+
+        public static Target channel(String channelId) {
+            return new Target(channelId, false);
+        }
+
+        public static Target user(String userId) {
+            return new Target(userId, true);
+        }
+
+        public static List<Target> channels(Collection<String> channelIds) {
+            List<Target> targets = new ArrayList<>(channelIds.size());
+            channelIds.forEach(id -> targets.add(channel(id)));
+            return targets;
+        }
+
+        public static List<Target> users(Collection<String> userIds) {
+            List<Target> targets = new ArrayList<>(userIds.size());
+            userIds.forEach(id -> targets.add(user(id)));
+            return targets;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public boolean isUser() {
+            return user;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Target target = (Target) o;
+            return user == target.user && id.equals(target.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, user);
+        }
+
+        @Override
+        public String toString() {
+            return (user ? "user " : "channel ") + id;
+        }
+    }
+}
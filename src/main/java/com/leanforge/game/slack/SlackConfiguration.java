@@ -2,8 +2,11 @@ package com.leanforge.game.slack;
 
 import com.ullink.slack.simpleslackapi.SlackSession;
 import com.ullink.slack.simpleslackapi.impl.SlackSessionFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -15,4 +18,19 @@ public class SlackConfiguration {
     public SlackSession slackSession(@Value("${slack.token}") String slackToken) {
         return SlackSessionFactory.createWebSocketSlackSession(slackToken);
     }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(name = "slack.events.dedup.enabled", havingValue = "true", matchIfMissing = true)
+    public EventDeduplicator eventDeduplicator(@Value("${slack.events.dedup.window-ms:60000}") long windowMillis,
+                                               @Value("${slack.events.dedup.capacity:65536}") int capacity) {
+        return new LocalEventDeduplicator(windowMillis, capacity);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SlackMetrics slackMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        return registry == null ? SlackMetrics.noop() : new SlackMetrics(registry);
+    }
 }
@@ -0,0 +1,156 @@
+package com.leanforge.game.slack;
+
+import com.ullink.slack.simpleslackapi.SlackChannel;
+import com.ullink.slack.simpleslackapi.SlackUser;
+
+import java.time.DateTimeException;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of workspace users and channels, indexed for lookups.
+ * It's replaced as a whole on refresh, so it can be read without locking.
+ */
+class SlackDirectory {
+
+    static final SlackDirectory EMPTY = new SlackDirectory(Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap());
+
+    private final Map<String, DirectoryUser> usersById;
+    private final Map<String, DirectoryUser> usersByName;
+    private final Map<String, String> channelNamesById;
+    private final Map<String, String> channelIdsByName;
+
+    private SlackDirectory(Map<String, DirectoryUser> usersById, Map<String, DirectoryUser> usersByName, Map<String, String> channelNamesById, Map<String, String> channelIdsByName) {
+        this.usersById = usersById;
+        this.usersByName = usersByName;
+        this.channelNamesById = channelNamesById;
+        this.channelIdsByName = channelIdsByName;
+    }
+
+    static SlackDirectory of(Collection<SlackUser> users, Collection<SlackChannel> channels) {
+        Map<String, DirectoryUser> usersById = new HashMap<>(users.size() * 2);
+        Map<String, DirectoryUser> usersByName = new HashMap<>(users.size() * 2);
+        for (SlackUser user : users) {
+            DirectoryUser directoryUser = new DirectoryUser(user);
+            usersById.put(directoryUser.getId(), directoryUser);
+            if (directoryUser.getUserName() != null) {
+                usersByName.put(directoryUser.getUserName(), directoryUser);
+            }
+        }
+
+        Map<String, String> channelNamesById = new HashMap<>(channels.size() * 2);
+        Map<String, String> channelIdsByName = new HashMap<>(channels.size() * 2);
+        for (SlackChannel channel : channels) {
+            if (channel.getName() == null) {
+                continue;
+            }
+            channelNamesById.put(channel.getId(), channel.getName());
+            channelIdsByName.put(channel.getName(), channel.getId());
+        }
+
+        return new SlackDirectory(usersById, usersByName, channelNamesById, channelIdsByName);
+    }
+
+    /**
+     * @return copy of this directory with the user added or replaced
+     */
+    SlackDirectory withUser(SlackUser user) {
+        DirectoryUser directoryUser = new DirectoryUser(user);
+        Map<String, DirectoryUser> newUsersById = new HashMap<>(usersById);
+        Map<String, DirectoryUser> newUsersByName = new HashMap<>(usersByName);
+
+        DirectoryUser previous = newUsersById.put(directoryUser.getId(), directoryUser);
+        if (previous != null && previous.getUserName() != null) {
+            newUsersByName.remove(previous.getUserName(), previous);
+        }
+        if (directoryUser.getUserName() != null) {
+            newUsersByName.put(directoryUser.getUserName(), directoryUser);
+        }
+
+        return new SlackDirectory(newUsersById, newUsersByName, channelNamesById, channelIdsByName);
+    }
+
+    /**
+     * @return copy of this directory without the channel, so its lookups fall back to the session
+     */
+    SlackDirectory withoutChannel(String channelId) {
+        String name = channelNamesById.get(channelId);
+        if (name == null) {
+            return this;
+        }
+
+        Map<String, String> newChannelNamesById = new HashMap<>(channelNamesById);
+        Map<String, String> newChannelIdsByName = new HashMap<>(channelIdsByName);
+        newChannelNamesById.remove(channelId);
+        newChannelIdsByName.remove(name, channelId);
+        return new SlackDirectory(usersById, usersByName, newChannelNamesById, newChannelIdsByName);
+    }
+
+    DirectoryUser findUserById(String userId) {
+        return usersById.get(userId);
+    }
+
+    DirectoryUser findUserByName(String username) {
+        return usersByName.get(username);
+    }
+
+    String findChannelName(String channelId) {
+        return channelNamesById.get(channelId);
+    }
+
+    String findChannelId(String channelName) {
+        return channelIdsByName.get(channelName);
+    }
+
+    boolean isEmpty() {
+        return usersById.isEmpty() && channelNamesById.isEmpty();
+    }
+
+    static class DirectoryUser {
+        private final String id;
+        private final String userName;
+        private final String realName;
+        private final ZoneId timeZone;
+
+        DirectoryUser(SlackUser user) {
+            this.id = user.getId();
+            this.userName = user.getUserName();
+            this.realName = user.getRealName();
+            this.timeZone = parseTimeZone(user.getTimeZone());
+        }
+
+        String getId() {
+            return id;
+        }
+
+        String getUserName() {
+            return userName;
+        }
+
+        String getRealName() {
+            return realName;
+        }
+
+        /**
+         * @return time zone of the user or null when it's unknown
+         */
+        ZoneId getTimeZone() {
+            return timeZone;
+        }
+
+        private static ZoneId parseTimeZone(String timeZone) {
+            if (timeZone == null) {
+                return null;
+            }
+
+            try {
+                return ZoneId.of(timeZone);
+            } catch (DateTimeException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -8,6 +8,7 @@ public class SlackMessage implements Serializable {
     private String timestamp;
     private String channelId;
     private String senderId;
+    private String responseUrl;
     private Instant createdOn = Instant.now();
 
     @Deprecated
@@ -22,6 +23,13 @@ public class SlackMessage implements Serializable {
         this.channelId = channelId;
     }
 
+    SlackMessage(String timestamp, String channelId, String senderId, String responseUrl) {
+        this.timestamp = timestamp;
+        this.channelId = channelId;
+        this.senderId = senderId;
+        this.responseUrl = responseUrl;
+    }
+
     @Deprecated
     public String getSenderId() {
         return senderId;
@@ -35,6 +43,13 @@ public class SlackMessage implements Serializable {
         return channelId;
     }
 
+    /**
+     * @return url accepting delayed responses, present only for messages with clicked actions
+     */
+    public String getResponseUrl() {
+        return responseUrl;
+    }
+
     public Instant getCreatedOn() {
         return createdOn;
     }
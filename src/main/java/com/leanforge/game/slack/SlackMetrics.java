@@ -0,0 +1,130 @@
+package com.leanforge.game.slack;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Meters of slack event handling and outbound calls. Without a {@link MeterRegistry} in the context,
+ * {@link #noop()} is used and nothing is recorded. Applications get a registry by adding actuator
+ * with micrometer-spring-legacy, or by declaring one.
+ */
+public class SlackMetrics {
+
+    public static final String MESSAGE = "message";
+    public static final String THREAD = "thread";
+    public static final String ACTION = "action";
+    public static final String REACTION = "reaction";
+
+    private final MeterRegistry registry;
+    private final Map<SlackApiMethod, Timer> apiTimers = new EnumMap<>(SlackApiMethod.class);
+    private final Counter reconnects;
+
+    public SlackMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (SlackApiMethod method : SlackApiMethod.values()) {
+            apiTimers.put(method, Timer.builder("slack.api.calls")
+                    .description("Latency of slack web api calls")
+                    .tag("method", method.getMethodName())
+                    .register(registry));
+        }
+        reconnects = Counter.builder("slack.session.reconnects")
+                .description("Number of times slack session was (re)opened")
+                .register(registry);
+    }
+
+    public static SlackMetrics noop() {
+        return new SlackMetrics(new CompositeMeterRegistry());
+    }
+
+    /**
+     * @return timer of listener method invocations
+     */
+    public Timer handlerTimer(String eventType, String handler) {
+        return Timer.builder("slack.handler")
+                .description("Time of listener method invocation")
+                .tag("type", eventType)
+                .tag("handler", handler)
+                .register(registry);
+    }
+
+    /**
+     * @return timer of finding listeners matching an event, without their invocation
+     */
+    public Timer matchTimer(String eventType) {
+        return Timer.builder("slack.handler.match")
+                .description("Time of matching events with listeners")
+                .tag("type", eventType)
+                .register(registry);
+    }
+
+    public void recordError(Throwable e) {
+        Throwable error = e instanceof InvocationTargetException && e.getCause() != null ? e.getCause() : e;
+        registry.counter("slack.handler.errors", "exception", error.getClass().getSimpleName()).increment();
+    }
+
+    <T> T recordApiCall(SlackApiMethod method, Supplier<T> call) {
+        return apiTimers.get(method).record(call);
+    }
+
+    void recordReconnect() {
+        reconnects.increment();
+    }
+
+    /**
+     * Registers meters of slack service components. Components are read on every measurement,
+     * so meters don't create them and report nothing until they are used.
+     */
+    void bind(SlackService slackService) {
+        Gauge.builder("slack.events.queue", slackService, it -> gauge(it.startedEventExecutor(), EventExecutor::getQueueDepth))
+                .description("Number of events waiting for handling")
+                .register(registry);
+        FunctionCounter.builder("slack.events.dropped", slackService, it -> count(it.startedEventExecutor(), EventExecutor::getDroppedCount))
+                .description("Number of events dropped, because the queue was full")
+                .register(registry);
+        FunctionCounter.builder("slack.events.duplicates", slackService, SlackService::getDuplicateEventCount)
+                .description("Number of events skipped, because they were already handled")
+                .register(registry);
+        TimeGauge.builder("slack.events.lag", slackService, TimeUnit.MILLISECONDS,
+                it -> gauge(it.startedEventExecutor(), executor -> executor.getLastLag().toMillis()))
+                .description("Time between the latest event and start of its handling")
+                .register(registry);
+
+        Gauge.builder("slack.actions.queue", slackService, it -> gauge(it.startedActionDispatcher(), ActionDispatcher::getQueueDepth))
+                .description("Number of actions waiting for handling")
+                .register(registry);
+        FunctionCounter.builder("slack.actions.rejected", slackService, it -> count(it.startedActionDispatcher(), ActionDispatcher::getRejectedCount))
+                .register(registry);
+
+        Gauge.builder("slack.rate-limit.queue", slackService, it -> gauge(it.startedRateLimiter(), SlackRateLimiter::getQueueDepth))
+                .description("Number of outbound calls waiting for rate limit budget")
+                .register(registry);
+        FunctionCounter.builder("slack.rate-limit.rejected", slackService, it -> count(it.startedRateLimiter(), SlackRateLimiter::getRateLimitedCount))
+                .description("Number of calls rejected by slack as rate limited")
+                .register(registry);
+
+        FunctionCounter.builder("slack.users.reconciliations", slackService, SlackService::getReconciliationCount)
+                .register(registry);
+        TimeGauge.builder("slack.users.reconciliation.duration", slackService, TimeUnit.MILLISECONDS, it -> it.getLastReconciliationDuration().toMillis())
+                .register(registry);
+    }
+
+    private static <T> double gauge(T component, ToDoubleFunction<T> value) {
+        return component == null ? Double.NaN : value.applyAsDouble(component);
+    }
+
+    private static <T> double count(T component, ToDoubleFunction<T> value) {
+        return component == null ? 0 : value.applyAsDouble(component);
+    }
+}
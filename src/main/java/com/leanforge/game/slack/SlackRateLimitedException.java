@@ -0,0 +1,13 @@
+package com.leanforge.game.slack;
+
+/**
+ * Slack rejected the call because of rate limits and retries didn't help.
+ */
+public class SlackRateLimitedException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    public SlackRateLimitedException() {
+        super("Slack error: ratelimited");
+    }
+}
@@ -0,0 +1,131 @@
+package com.leanforge.game.slack;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Keeps outbound calls within Slack rate limits.
+ * Calls exceeding the budget of their API method or channel wait for it instead of failing.
+ * Calls rejected by Slack as rate limited are retried with exponential back-off.
+ * Callers holding a lock should take it inside of the call, so nobody waits for budget while holding it.
+ */
+public class SlackRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlackRateLimiter.class);
+
+    private final Map<SlackApiMethod, TokenBucket> methodBuckets = new EnumMap<>(SlackApiMethod.class);
+    private final ConcurrentMap<String, TokenBucket> channelBuckets = new ConcurrentHashMap<>();
+    private final double channelMessagesPerSecond;
+    private final int channelBurst;
+    private final int maxRetries;
+    private final long retryAfterMillis;
+
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicLong waitCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong rateLimitedCount = new AtomicLong();
+
+    SlackRateLimiter(double channelMessagesPerSecond, int channelBurst, int maxRetries, long retryAfterMillis) {
+        this.channelMessagesPerSecond = channelMessagesPerSecond;
+        this.channelBurst = channelBurst;
+        this.maxRetries = maxRetries;
+        this.retryAfterMillis = retryAfterMillis;
+
+        for (SlackApiMethod method : SlackApiMethod.values()) {
+            if (method.getRequestsPerMinute() > 0) {
+                methodBuckets.put(method, new TokenBucket(method.getRequestsPerMinute() / 60d, method.getRequestsPerMinute()));
+            }
+        }
+    }
+
+    <T> T call(SlackApiMethod method, String channelId, Supplier<T> call) {
+        for (int attempt = 0; ; attempt++) {
+            acquire(method, channelId);
+            try {
+                return call.get();
+            } catch (SlackRateLimitedException e) {
+                rateLimitedCount.incrementAndGet();
+                if (attempt >= maxRetries) {
+                    throw e;
+                }
+                long backOff = retryAfterMillis << attempt;
+                logger.warn("Slack rate limited {} in channel {}, retrying in {} ms", method.getMethodName(), channelId, backOff);
+                await(TimeUnit.MILLISECONDS.toNanos(backOff));
+            }
+        }
+    }
+
+    private void acquire(SlackApiMethod method, String channelId) {
+        long wait = 0;
+
+        TokenBucket methodBucket = methodBuckets.get(method);
+        if (methodBucket != null) {
+            wait = methodBucket.reserve();
+        }
+
+        if (method.isChannelLimited() && channelId != null) {
+            TokenBucket channelBucket = channelBuckets.computeIfAbsent(channelId, it -> new TokenBucket(channelMessagesPerSecond, channelBurst));
+            wait = Math.max(wait, channelBucket.reserve());
+        }
+
+        if (wait > 0) {
+            logger.debug("Waiting {} ms for {} budget in channel {}", TimeUnit.NANOSECONDS.toMillis(wait), method.getMethodName(), channelId);
+            await(wait);
+        }
+    }
+
+    private void await(long nanos) {
+        queueDepth.incrementAndGet();
+        waitCount.incrementAndGet();
+        totalWaitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for slack rate limit", e);
+        } finally {
+            queueDepth.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return number of calls currently waiting for budget
+     */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * @return number of calls which had to wait for budget
+     */
+    public long getWaitCount() {
+        return waitCount.get();
+    }
+
+    public Duration getTotalWaitTime() {
+        return Duration.ofNanos(totalWaitNanos.get());
+    }
+
+    public Duration getMaxWaitTime() {
+        return Duration.ofNanos(maxWaitNanos.get());
+    }
+
+    /**
+     * @return number of calls rejected by slack as rate limited
+     */
+    public long getRateLimitedCount() {
+        return rateLimitedCount.get();
+    }
+}
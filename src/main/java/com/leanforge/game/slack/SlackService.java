@@ -1,219 +1,1026 @@
 package com.leanforge.game.slack;
 
 import com.ullink.slack.simpleslackapi.*;
+import com.ullink.slack.simpleslackapi.events.SlackMessagePosted;
 import com.ullink.slack.simpleslackapi.replies.SlackMessageReply;
 import com.ullink.slack.simpleslackapi.replies.SlackReply;
 import com.ullink.slack.simpleslackapi.replies.SlackReplyImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.io.IOException;
+import java.time.Duration;
 import java.time.ZoneId;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Service
 public class SlackService {
 
+    private static final String RATE_LIMITED_ERROR = "ratelimited";
+
+    /**
+     * Edits, deletions and channel notifications aren't passed to message listeners.
+     * Bot messages are filtered by {@code slack.events.ignore-bots}.
+     */
+    private static final Set<SlackMessagePosted.MessageSubType> IGNORED_SUBTYPES = Collections.unmodifiableSet(EnumSet.of(
+            SlackMessagePosted.MessageSubType.MESSAGE_CHANGED,
+            SlackMessagePosted.MessageSubType.MESSAGE_DELETED,
+            SlackMessagePosted.MessageSubType.MESSAGE_REPLIED,
+            SlackMessagePosted.MessageSubType.CHANNEL_JOIN,
+            SlackMessagePosted.MessageSubType.CHANNEL_LEAVE,
+            SlackMessagePosted.MessageSubType.CHANNEL_NAME,
+            SlackMessagePosted.MessageSubType.CHANNEL_PURPOSE,
+            SlackMessagePosted.MessageSubType.CHANNEL_TOPIC,
+            SlackMessagePosted.MessageSubType.CHANNEL_ARCHIVE,
+            SlackMessagePosted.MessageSubType.CHANNEL_UNARCHIVE,
+            SlackMessagePosted.MessageSubType.GROUP_JOIN,
+            SlackMessagePosted.MessageSubType.GROUP_LEAVE,
+            SlackMessagePosted.MessageSubType.GROUP_NAME,
+            SlackMessagePosted.MessageSubType.GROUP_PURPOSE,
+            SlackMessagePosted.MessageSubType.GROUP_TOPIC,
+            SlackMessagePosted.MessageSubType.GROUP_UNARCHIVE,
+            SlackMessagePosted.MessageSubType.PINNED_ITEM,
+            SlackMessagePosted.MessageSubType.UNPINNED_ITEM));
+
+    private static final Map<String, SlackMessagePosted.MessageSubType> SUBTYPES_BY_CODE = Collections.unmodifiableMap(
+            Arrays.stream(SlackMessagePosted.MessageSubType.values())
+                    .filter(it -> it.getCode() != null)
+                    .collect(Collectors.toMap(SlackMessagePosted.MessageSubType::getCode, it -> it, (first, second) -> first)));
+
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
     @Autowired
     SlackSession slackSession;
 
+    /**
+     * Skips events delivered more than once. Without it, every delivered event is handled.
+     */
+    @Autowired(required = false)
+    EventDeduplicator eventDeduplicator;
+
+    @Autowired(required = false)
+    SlackMetrics metrics = SlackMetrics.noop();
+
+    @Value("${slack.connect-on-startup:true}")
+    boolean connectOnStartup = true;
+
+    /**
+     * Initial delay before the startup connection is retried. Doubled with every retry, up to {@code slack.connect.max-retry-after-ms}.
+     */
+    @Value("${slack.connect.retry-after-ms:1000}")
+    long connectRetryAfterMillis = 1000;
+
+    @Value("${slack.connect.max-retry-after-ms:60000}")
+    long connectMaxRetryAfterMillis = 60000;
+
+    /**
+     * When enabled, outbound calls are serialized per channel only. Otherwise all of them share one lock.
+     */
+    @Value("${slack.concurrency.per-channel:true}")
+    boolean perChannelConcurrency = true;
+
+    @Value("${slack.async.threads:4}")
+    int asyncThreads = 4;
+
+    /**
+     * Max number of async calls waiting for execution. When exceeded, async calls fail with {@link java.util.concurrent.RejectedExecutionException}.
+     */
+    @Value("${slack.async.queue-capacity:1000}")
+    int asyncQueueCapacity = 1000;
+
+    @Value("${slack.rate-limit.enabled:true}")
+    boolean rateLimitEnabled = true;
+
+    @Value("${slack.rate-limit.channel-messages-per-second:1}")
+    double channelMessagesPerSecond = 1;
+
+    /**
+     * Number of messages which can be sent to a channel at once, before per second budget applies.
+     */
+    @Value("${slack.rate-limit.channel-burst:3}")
+    int channelBurst = 3;
+
+    @Value("${slack.rate-limit.max-retries:3}")
+    int rateLimitMaxRetries = 3;
+
+    /**
+     * Initial back-off after slack responds with rate limit error. Doubled with every retry.
+     */
+    @Value("${slack.rate-limit.retry-after-ms:1000}")
+    long rateLimitRetryAfterMillis = 1000;
+
+    /**
+     * When enabled, reactions of one message are added one by one, so they are displayed in requested order.
+     * Otherwise they are added concurrently.
+     */
+    @Value("${slack.reactions.preserve-order:true}")
+    boolean preserveReactionOrder = true;
+
+    /**
+     * Min interval between coalesced updates of the same message.
+     */
+    @Value("${slack.update.min-interval-ms:1000}")
+    long updateMinIntervalMillis = 1000;
+
+    /**
+     * When enabled, action callbacks run on a worker pool and the interaction request is answered right away.
+     * Callbacks may reply later with {@link #respond(SlackMessage, String)}.
+     */
+    @Value("${slack.actions.async:false}")
+    boolean asyncActions = false;
+
+    @Value("${slack.actions.threads:4}")
+    int actionThreads = 4;
+
+    @Value("${slack.actions.queue-capacity:1000}")
+    int actionQueueCapacity = 1000;
 
-    private final Set<ActionCallback> actionCallbacks = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    @Value("${slack.actions.respond.connect-timeout-ms:5000}")
+    int respondConnectTimeoutMillis = 5000;
 
-    @Scheduled(fixedDelay = 30000)
-    public synchronized void refreshUsers() {
+    @Value("${slack.actions.respond.read-timeout-ms:10000}")
+    int respondReadTimeoutMillis = 10000;
+
+    /**
+     * How long aggregated messages of a channel are collected before they are sent as one message.
+     */
+    @Value("${slack.aggregate.window-ms:2000}")
+    long aggregateWindowMillis = 2000;
+
+    @Value("${slack.aggregate.max-messages:20}")
+    int aggregateMaxMessages = 20;
+
+    @Value("${slack.aggregate.max-length:3000}")
+    int aggregateMaxLength = 3000;
+
+    /**
+     * Max number of broadcast messages sent at once.
+     */
+    @Value("${slack.broadcast.parallelism:8}")
+    int broadcastParallelism = 8;
+
+    /**
+     * When enabled, events are handled on a worker pool instead of the websocket thread.
+     * Events of one channel, or one thread, are still handled in order.
+     */
+    @Value("${slack.events.async:false}")
+    boolean asyncEvents = false;
+
+    /**
+     * When enabled, message and reaction events are received by {@link EventController} instead of the websocket.
+     */
+    @Value("${slack.events.http:false}")
+    boolean httpEvents = false;
+
+    /**
+     * When enabled, messages of other bots aren't passed to message listeners.
+     */
+    @Value("${slack.events.ignore-bots:false}")
+    boolean ignoreBots = false;
+
+    @Value("${slack.events.threads:4}")
+    int eventThreads = 4;
+
+    /**
+     * Max number of pending events. When exceeded, {@code slack.events.overflow} policy applies.
+     */
+    @Value("${slack.events.queue-capacity:1000}")
+    int eventQueueCapacity = 1000;
+
+    @Value("${slack.events.overflow:BLOCK}")
+    EventExecutor.OverflowPolicy eventOverflowPolicy = EventExecutor.OverflowPolicy.BLOCK;
+
+    /**
+     * Handles every event on a new virtual thread when the runtime supports them, instead of the worker pool.
+     * Pending events are still limited by {@code slack.events.queue-capacity}.
+     */
+    @Value("${slack.events.virtual-threads:false}")
+    boolean virtualEventThreads = false;
+
+    private final ChannelLocks channelLocks = new ChannelLocks();
+    private final AtomicReference<SlackDirectory> directory = new AtomicReference<>(SlackDirectory.EMPTY);
+    private final ChannelCache channelCache = new ChannelCache();
+    private final AtomicLong reconciliationCount = new AtomicLong();
+    private volatile Duration lastReconciliationDuration = Duration.ZERO;
+    private volatile OrderedExecutor asyncExecutor;
+    private volatile RestTemplate restTemplate;
+    private volatile MessageUpdateCoalescer updateCoalescer;
+    private volatile MessageAggregator messageAggregator;
+    private volatile ReactionPipeline reactionPipeline;
+    private volatile SlackRateLimiter rateLimiter;
+    private volatile ActionDispatcher actionDispatcher;
+    private volatile EventExecutor eventExecutor;
+    private final Object sessionLock = new Object();
+
+    private final ActionRegistry actionRegistry = new ActionRegistry();
+    private final List<LazyMessageCallback> messageCallbacks = new CopyOnWriteArrayList<>();
+    private final List<LazyMessageCallback> threadCallbacks = new CopyOnWriteArrayList<>();
+    private volatile String personaId;
+    private volatile boolean shuttingDown;
+    private final AtomicLong duplicateEventCount = new AtomicLong();
+    private final List<MessageReactionCallback> reactionAddedCallbacks = new CopyOnWriteArrayList<>();
+    private final List<MessageReactionCallback> reactionRemovedCallbacks = new CopyOnWriteArrayList<>();
+    private boolean messagesSubscribed;
+
+    /**
+     * Opens slack session in background once the application is ready, so startup doesn't wait for slack.
+     * Failed attempts are retried with exponential back-off until the session is open, so a bot which only listens
+     * gets connected after a temporary failure. When disabled, the session is opened on first use.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void connectInBackground() {
+        if (!connectOnStartup) {
+            return;
+        }
+
+        Thread thread = new Thread(this::connectWithRetries, "slack-connect");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void connectWithRetries() {
+        long backOff = connectRetryAfterMillis;
+        while (!shuttingDown) {
+            try {
+                openSession();
+                return;
+            } catch (Exception e) {
+                logger.error("Can't open slack session, retrying in {} ms", backOff, e);
+            }
+
+            try {
+                TimeUnit.MILLISECONDS.sleep(backOff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            backOff = Math.min(backOff * 2, connectMaxRetryAfterMillis);
+        }
+    }
+
+    @PostConstruct
+    void bindMetrics() {
+        metrics.bind(this);
+    }
+
+    @PostConstruct
+    void subscribeDirectoryUpdates() {
+        slackSession.addSlackUserChangeListener((event, session) -> updateDirectoryUser(event.getUser()));
+        slackSession.addSlackTeamJoinListener((event, session) -> updateDirectoryUser(event.getUser()));
+        slackSession.addChannelRenamedListener((event, session) -> evictChannel(event.getSlackChannel()));
+        slackSession.addChannelArchivedListener((event, session) -> evictChannel(event.getSlackChannel()));
+        slackSession.addChannelDeletedListener((event, session) -> evictChannel(event.getSlackChannel()));
+    }
+
+    /**
+     * Fully reconciles users with slack. Between reconciliations the directory is kept up to date
+     * by {@code user_change} and {@code team_join} events, renamed, archived and deleted channels are evicted from it.
+     */
+    @Scheduled(fixedDelayString = "${slack.users.reconcile-interval-ms:3600000}", initialDelayString = "${slack.users.reconcile-interval-ms:3600000}")
+    public void refreshUsers() {
         openSession();
+        long start = System.nanoTime();
         slackSession.refetchUsers();
+        refreshDirectory();
+        Duration duration = Duration.ofNanos(System.nanoTime() - start);
+
+        lastReconciliationDuration = duration;
+        reconciliationCount.incrementAndGet();
+        logger.debug("Reconciled slack users in {} ms", duration.toMillis());
     }
 
-    public synchronized SlackMessage sendDirectMessage(String userId, String message, String... reactionCodes) {
+    public SlackMessage sendDirectMessage(String userId, String message, String... reactionCodes) {
         openSession();
-        SlackUser userById = slackSession.findUserById(userId);
-        SlackChannel channel = slackSession.openDirectMessageChannel(userById).getReply().getSlackChannel();
-        SlackMessageHandle<SlackMessageReply> messageHandle = slackSession.sendMessage(channel, message);
-        SlackMessage slackMessage = toChannelMessage(channel, messageHandle);
-        addReactions(slackMessage, reactionCodes);
+        SlackChannel channel = openDirectMessageChannel(userId);
+        SlackMessage slackMessage = rateLimitedInChannel(SlackApiMethod.CHAT_POST_MESSAGE, channel, () ->
+                toChannelMessage(channel, slackSession.sendMessage(channel, message)));
+        addReactionsInBackground(slackMessage, reactionCodes);
         return slackMessage;
     }
 
-    public synchronized SlackMessage sendDirectMessage(String userId, String message, SlackActions slackActions) {
+    public SlackMessage sendDirectMessage(String userId, String message, SlackActions slackActions) {
         openSession();
-        SlackUser userById = slackSession.findUserById(userId);
-        SlackChannel channel = slackSession.openDirectMessageChannel(userById).getReply().getSlackChannel();
+        SlackChannel channel = openDirectMessageChannel(userId);
         SlackPreparedMessage preparedMessage = new SlackPreparedMessage.Builder()
                 .withMessage(message)
                 .withAttachments(Collections.singletonList(slackActions.toAttachment()))
                 .build();
-        SlackMessageHandle<SlackMessageReply> messageHandle = slackSession.sendMessage(channel, preparedMessage);
 
-        return toChannelMessage(channel, messageHandle);
+        return rateLimitedInChannel(SlackApiMethod.CHAT_POST_MESSAGE, channel, () ->
+                toChannelMessage(channel, slackSession.sendMessage(channel, preparedMessage)));
     }
 
-    public synchronized SlackMessage sendChannelMessage(String channelId, String message, SlackActions slackActions) {
+    public SlackMessage sendChannelMessage(String channelId, String message, SlackActions slackActions) {
         openSession();
         logger.debug("Sending message to: {}", channelId);
-        SlackChannel channel = slackSession.findChannelById(channelId);
         SlackPreparedMessage preparedMessage = new SlackPreparedMessage.Builder()
                 .withMessage(message)
                 .withAttachments(Collections.singletonList(slackActions.toAttachment()))
                 .build();
-        SlackMessageHandle<SlackMessageReply> messageHandle = slackSession.sendMessage(channel, preparedMessage);
 
-        return toChannelMessage(channel, messageHandle);
+        SlackChannel channel = channel(channelId);
+        return rateLimitedInChannel(SlackApiMethod.CHAT_POST_MESSAGE, channel, () ->
+                toChannelMessage(channel, slackSession.sendMessage(channel, preparedMessage)));
     }
 
-    public synchronized SlackMessage sendChannelMessage(String channelId, String message, String... reactionCodes) {
+    public SlackMessage sendChannelMessage(String channelId, String message, String... reactionCodes) {
         openSession();
         logger.debug("Sending message to: {}", channelId);
-        SlackChannel channel = slackSession.findChannelById(channelId);
-        SlackMessageHandle<SlackMessageReply> messageHandle = slackSession.sendMessage(channel, message);
-        SlackMessage slackMessage = toChannelMessage(channel, messageHandle);
-        addReactions(slackMessage, reactionCodes);
+        SlackChannel channel = channel(channelId);
+        SlackMessage slackMessage = rateLimitedInChannel(SlackApiMethod.CHAT_POST_MESSAGE, channel, () ->
+                toChannelMessage(channel, slackSession.sendMessage(channel, message)));
+        addReactionsInBackground(slackMessage, reactionCodes);
 
         return slackMessage;
     }
 
-    public synchronized SlackMessage sendThreadMessage(String channelId, String threadId, String message, String... reactionCodes) {
+    public SlackMessage sendThreadMessage(String channelId, String threadId, String message, String... reactionCodes) {
         openSession();
         logger.debug("Sending message to: {}", channelId);
-        SlackChannel channel = slackSession.findChannelById(channelId);
         SlackPreparedMessage preparedMessage = new SlackPreparedMessage.Builder()
                 .withMessage(message)
                 .withThreadTimestamp(threadId)
                 .build();
-        SlackMessageHandle<SlackMessageReply> messageHandle = slackSession.sendMessage(channel, preparedMessage);
-        SlackMessage slackMessage = toChannelMessage(channel, messageHandle);
-        addReactions(slackMessage, reactionCodes);
+
+        SlackChannel channel = channel(channelId);
+        SlackMessage slackMessage = rateLimitedInChannel(SlackApiMethod.CHAT_POST_MESSAGE, channel, () ->
+                toChannelMessage(channel, slackSession.sendMessage(channel, preparedMessage)));
+        addReactionsInBackground(slackMessage, reactionCodes);
 
         return slackMessage;
     }
 
-    public synchronized void sendTyping(String channelId) {
+    public void sendTyping(String channelId) {
         openSession();
-        SlackChannel channel = slackSession.findChannelById(channelId);
-        slackSession.sendTyping(channel);
+        inChannel(channelId, () -> {
+            SlackChannel channel = channel(channelId);
+            return slackSession.sendTyping(channel);
+        });
     }
 
-    public synchronized SlackMessage updateMessage(SlackMessage message, String text, String... reactionCodes) {
+    public SlackMessage updateMessage(SlackMessage message, String text, String... reactionCodes) {
         openSession();
         logger.debug("Updating message: {} - {}", message.getChannelId(), message.getTimestamp());
-        SlackChannel channel = slackSession.findChannelById(message.getChannelId());
-        SlackMessageHandle<SlackMessageReply> messageHandle = slackSession.updateMessage(message.getTimestamp(), channel, text);
-        SlackMessage slackMessage = toChannelMessage(channel, messageHandle);
-        addReactions(slackMessage, reactionCodes);
+        SlackChannel channel = channel(message.getChannelId());
+        SlackMessage slackMessage = rateLimitedInChannel(SlackApiMethod.CHAT_UPDATE, channel, () ->
+                toChannelMessage(channel, slackSession.updateMessage(message.getTimestamp(), channel, text)));
+        addReactionsInBackground(slackMessage, reactionCodes);
 
         return slackMessage;
     }
 
-    public synchronized void addReactions(SlackMessage slackMessage, String... reactionCodes) {
-        openSession();
-
-        SlackChannel channel = slackSession.findChannelById(slackMessage.getChannelId());
+    /**
+     * Adds reactions one by one on the calling thread, so it doesn't wait for the shared async executor.
+     */
+    public void addReactions(SlackMessage slackMessage, String... reactionCodes) {
+        for (String reactionCode : reactionCodes) {
+            applyReaction(slackMessage, reactionCode, true);
+        }
+    }
 
+    public void removeReactions(SlackMessage slackMessage, String... reactionCodes) {
         for (String reactionCode : reactionCodes) {
-            slackSession.addReactionToMessage(channel, slackMessage.getTimestamp(), reactionCode);
+            applyReaction(slackMessage, reactionCode, false);
         }
     }
 
+    public CompletableFuture<SlackMessage> sendChannelMessageAsync(String channelId, String message, String... reactionCodes) {
+        return asyncExecutor().submit(channelId, () -> sendChannelMessage(channelId, message, reactionCodes));
+    }
+
+    public CompletableFuture<SlackMessage> sendChannelMessageAsync(String channelId, String message, SlackActions slackActions) {
+        return asyncExecutor().submit(channelId, () -> sendChannelMessage(channelId, message, slackActions));
+    }
+
+    public CompletableFuture<SlackMessage> sendThreadMessageAsync(String channelId, String threadId, String message, String... reactionCodes) {
+        return asyncExecutor().submit(channelId, () -> sendThreadMessage(channelId, threadId, message, reactionCodes));
+    }
+
+    public CompletableFuture<SlackMessage> updateMessageAsync(SlackMessage message, String text, String... reactionCodes) {
+        return asyncExecutor().submit(message.getChannelId(), () -> updateMessage(message, text, reactionCodes));
+    }
+
+    /**
+     * Updates message at most once per {@code slack.update.min-interval-ms}. When the message is updated again
+     * before pending update is sent, only the latest text is sent.
+     *
+     * @return future completed when the text, or a newer one, is applied
+     */
+    public CompletableFuture<SlackMessage> updateMessageCoalesced(SlackMessage message, String text) {
+        return updateCoalescer().update(message, text);
+    }
+
+    /**
+     * Sends the message combined with other aggregated messages of the channel, sent within {@code slack.aggregate.window-ms}.
+     * Aggregated messages are sent in order they were added. Use {@link #flushAggregated(String)}
+     * before sending a regular message that should appear after them.
+     *
+     * @return future of the combined message
+     */
+    public CompletableFuture<SlackMessage> sendChannelMessageAggregated(String channelId, String message) {
+        return messageAggregator().add(channelId, null, message);
+    }
+
+    public CompletableFuture<SlackMessage> sendThreadMessageAggregated(String channelId, String threadId, String message) {
+        return messageAggregator().add(channelId, threadId, message);
+    }
+
+    /**
+     * Sends pending aggregated messages of the channel and its threads right away.
+     */
+    public CompletableFuture<Void> flushAggregated(String channelId) {
+        return messageAggregator().flush(channelId);
+    }
+
+    public SlackBroadcast broadcast(Collection<SlackBroadcast.Target> targets, String message) {
+        return broadcast(targets, new SlackPreparedMessage.Builder().withMessage(message).build());
+    }
+
+    public SlackBroadcast broadcast(Collection<SlackBroadcast.Target> targets, String message, SlackActions slackActions) {
+        return broadcast(targets, new SlackPreparedMessage.Builder()
+                .withMessage(message)
+                .withAttachments(Collections.singletonList(slackActions.toAttachment()))
+                .build());
+    }
+
+    /**
+     * Sends the same message to many channels and users without blocking. At most {@code slack.broadcast.parallelism}
+     * messages are sent at once, each of them within rate limits of its channel.
+     *
+     * @return broadcast with result of every target
+     */
+    public SlackBroadcast broadcast(Collection<SlackBroadcast.Target> targets, SlackPreparedMessage preparedMessage) {
+        logger.debug("Broadcasting message to {} targets", targets.size());
+        return new SlackBroadcast(targets, broadcastParallelism, target ->
+                asyncExecutor().submit(target.getId(), () -> sendPreparedMessage(target, preparedMessage))).start();
+    }
+
+    /**
+     * Adds reactions in background. Reactions of one message are added in the given order,
+     * reactions of different messages concurrently.
+     * Duplicated pending reactions are added once and pending removal of the same reaction cancels both.
+     */
+    public CompletableFuture<SlackMessage> addReactionsAsync(SlackMessage slackMessage, String... reactionCodes) {
+        return reactionPipeline().add(slackMessage, reactionCodes).thenApply(it -> slackMessage);
+    }
+
+    public CompletableFuture<SlackMessage> removeReactionsAsync(SlackMessage slackMessage, String... reactionCodes) {
+        return reactionPipeline().remove(slackMessage, reactionCodes).thenApply(it -> slackMessage);
+    }
+
     public synchronized void addReactionListener(MessageReactionCallback callback) {
-        openSession();
         logger.debug("Adding reaction listener {}", callback);
-        slackSession.addReactionAddedListener((event, session) -> {
-            if (event.getMessageID() == null || event.getChannel() == null || event.getUser().getId().equals(slackSession.sessionPersona().getId())) {
-                return;
-            }
-
-            callback.handleReaction(new SlackMessage(event.getMessageID(), event.getChannel().getId(), null), event.getUser().getId(), event.getEmojiName());
-        });
+        if (reactionAddedCallbacks.isEmpty() && !httpEvents) {
+            slackSession.addReactionAddedListener((event, session) -> onReaction(EventPayload.REACTION_ADDED, event.getMessageID(),
+                    event.getChannel() == null ? null : event.getChannel().getId(),
+                    event.getUser() == null ? null : event.getUser().getId(), event.getEmojiName(), event.getTimestamp()));
+        }
+        reactionAddedCallbacks.add(callback);
     }
 
     public synchronized void addRemoveReactionListener(MessageReactionCallback callback) {
-        openSession();
         logger.debug("Adding reaction listener {}", callback);
-        slackSession.addReactionRemovedListener((event, session) -> {
-            if (event.getMessageID() == null || event.getChannel() == null || event.getUser().getId().equals(slackSession.sessionPersona().getId())) {
-                return;
-            }
-
-            callback.handleReaction(new SlackMessage(event.getMessageID(), event.getChannel().getId(), null), event.getUser().getId(), event.getEmojiName());
-        });
+        if (reactionRemovedCallbacks.isEmpty() && !httpEvents) {
+            slackSession.addReactionRemovedListener((event, session) -> onReaction(EventPayload.REACTION_REMOVED, event.getMessageID(),
+                    event.getChannel() == null ? null : event.getChannel().getId(),
+                    event.getUser() == null ? null : event.getUser().getId(), event.getEmojiName(), event.getTimestamp()));
+        }
+        reactionRemovedCallbacks.add(callback);
     }
 
     public synchronized void addMessageListener(MessageCallback callback) {
-        openSession();
-        logger.debug("Adding direct message listener {}", callback);
-        slackSession.addMessagePostedListener((event, session) -> {
-            if (event.getSender().getId().equals(slackSession.sessionPersona().getId()) || event.getThreadTimestamp() != null) {
-                return;
-            }
+        addLazyMessageListener((message, threadId, content) -> callback.handleMessage(message.get(), content));
+    }
 
-            SlackMessage message = new SlackMessage(event.getTimestamp(), event.getChannel().getId(), event.getSender().getId());
-            callback.handleMessage(message, event.getMessageContent());
-        });
+    /**
+     * Adds listener of messages posted outside of threads. The message is created only when the listener asks for it.
+     */
+    public synchronized void addLazyMessageListener(LazyMessageCallback callback) {
+        logger.debug("Adding direct message listener {}", callback);
+        subscribeMessages();
+        messageCallbacks.add(callback);
     }
 
-    public synchronized void addActionListener(ActionCallback callback) {
+    /**
+     * Adds listener called for every action.
+     */
+    public void addActionListener(ActionCallback callback) {
         logger.debug("Adding action listener {}", callback);
-        actionCallbacks.add(callback);
+        actionRegistry.add(callback);
     }
 
-    public synchronized ZoneId getUserTimezone(String userId) {
+    /**
+     * Adds listener called for actions with given name and value. Value {@code *} matches any value.
+     */
+    public void addActionListener(String actionName, String actionValue, ActionCallback callback) {
+        logger.debug("Adding action listener {} for {}.{}", callback, actionName, actionValue);
+        actionRegistry.add(actionName, actionValue, callback);
+    }
+
+    /**
+     * Adds listener called once, for the first click on any of the given actions.
+     */
+    public void addActionListener(SlackActions slackActions, ActionCallback callback) {
+        logger.debug("Adding one-shot action listener {} for {}", callback, slackActions.getCallbackId());
+        actionRegistry.addOneShot(slackActions.getCallbackId(), callback);
+    }
+
+    public void removeActionListener(SlackActions slackActions) {
+        actionRegistry.removeOneShot(slackActions.getCallbackId());
+    }
+
+    public ZoneId getUserTimezone(String userId) {
         openSession();
+        SlackDirectory.DirectoryUser user = directory().findUserById(userId);
+        if (user != null && user.getTimeZone() != null) {
+            return user.getTimeZone();
+        }
+
         SlackUser slackUser = slackSession.findUserById(userId);
         return ZoneId.of(slackUser.getTimeZone());
     }
 
     public synchronized void addThreadListener(ThreadMessageCallback callback) {
-        slackSession.addMessagePostedListener((event, session) -> {
-            if (event.getSender().getId().equals(slackSession.sessionPersona().getId()) || event.getThreadTimestamp() == null) {
+        addLazyThreadListener((message, threadId, content) -> callback.handleMessage(message.get(), threadId, content));
+    }
+
+    /**
+     * Adds listener of messages posted in threads. The message is created only when the listener asks for it.
+     */
+    public synchronized void addLazyThreadListener(LazyMessageCallback callback) {
+        subscribeMessages();
+        threadCallbacks.add(callback);
+    }
+
+    /**
+     * @return executor of slack event handlers, exposing event queue depth and lag
+     */
+    public EventExecutor getEventExecutor() {
+        return events();
+    }
+
+    private void subscribeMessages() {
+        if (!messagesSubscribed && !httpEvents) {
+            slackSession.addMessagePostedListener((event, session) -> onMessagePosted(event));
+            messagesSubscribed = true;
+        }
+    }
+
+    private void onMessagePosted(SlackMessagePosted event) {
+        SlackUser sender = event.getSender();
+        if (sender == null) {
+            return;
+        }
+        onMessage(event.getChannel().getId(), sender.getId(), sender.isBot(), event.getMessageSubType(),
+                event.getTimestamp(), event.getThreadTimestamp(), event.getMessageContent());
+    }
+
+    /**
+     * Handles event received from {@link EventController}.
+     */
+    void handleEvent(EventPayload event) {
+        String eventType = event.getEventType();
+        if (EventPayload.MESSAGE.equals(eventType)) {
+            // bot messages carry only bot id, it's their sender, like in messages received over websocket
+            String senderId = event.getUserId() != null ? event.getUserId() : event.getBotId();
+            if (senderId == null || event.getChannelId() == null) {
+                return;
+            }
+            SlackMessagePosted.MessageSubType subType = event.getSubtype() == null
+                    ? SlackMessagePosted.MessageSubType.UNKNOWN
+                    : SUBTYPES_BY_CODE.getOrDefault(event.getSubtype(), SlackMessagePosted.MessageSubType.UNKNOWN);
+            onMessage(event.getChannelId(), senderId, event.getBotId() != null, subType,
+                    event.getTimestamp(), event.getThreadTimestamp(), event.getText());
+        } else if (EventPayload.REACTION_ADDED.equals(eventType) || EventPayload.REACTION_REMOVED.equals(eventType)) {
+            if (!EventPayload.MESSAGE.equals(event.getItemType())) {
                 return;
             }
-            callback.handleMessage(
-                    new SlackMessage(event.getTimestamp(), event.getChannel().getId(), event.getSender().getId()),
-                    event.getThreadTimestamp(),
-                    event.getMessageContent());
+            onReaction(eventType, event.getItemTimestamp(), event.getChannelId(), event.getUserId(), event.getReaction(),
+                    event.getEventTimestamp());
+        }
+    }
 
+    private void onMessage(String channelId, String senderId, boolean bot, SlackMessagePosted.MessageSubType subType,
+                           String timestamp, String threadTimestamp, String content) {
+        if (IGNORED_SUBTYPES.contains(subType)) {
+            return;
+        }
+
+        List<LazyMessageCallback> callbacks = threadTimestamp == null ? messageCallbacks : threadCallbacks;
+        boolean botMessage = bot || subType == SlackMessagePosted.MessageSubType.BOT_MESSAGE;
+        if (callbacks.isEmpty() || (ignoreBots && botMessage) || senderId.equals(personaId())) {
+            return;
+        }
+        if (isDuplicate(channelId, timestamp, EventPayload.MESSAGE)) {
+            return;
+        }
+
+        String key = threadTimestamp == null ? channelId : channelId + ":" + threadTimestamp;
+        events().execute(key, timestamp, () -> {
+            LazySlackMessage message = new LazySlackMessage(timestamp, channelId, senderId);
+            for (LazyMessageCallback callback : callbacks) {
+                handleSafely(() -> callback.handleMessage(message, threadTimestamp, content));
+            }
         });
     }
 
+    private String personaId() {
+        String id = personaId;
+        if (id == null) {
+            SlackPersona persona = slackSession.sessionPersona();
+            id = persona == null ? null : persona.getId();
+            personaId = id;
+        }
+        return id;
+    }
 
-    synchronized void fireActionCallbacks(String userId, SlackMessage parentMessage, String actionName, String actionValue, String callbackId) {
-        logger.debug("Firing action event: {}.{}", actionName, actionValue, callbackId);
-        actionCallbacks.forEach(actionCallback -> {
-            try {
-                actionCallback.handleMessage(parentMessage, userId, actionName, actionValue);
-            } catch (Exception e) {
-                logger.error("Can't handle action", e);
+    /**
+     * @param eventTimestamp timestamp of the reaction event, it may be null for events received over websocket
+     */
+    private void onReaction(String eventType, String messageId, String channelId, String userId, String emojiName, String eventTimestamp) {
+        List<MessageReactionCallback> callbacks = EventPayload.REACTION_ADDED.equals(eventType) ? reactionAddedCallbacks : reactionRemovedCallbacks;
+        if (messageId == null || channelId == null || userId == null || callbacks.isEmpty() || userId.equals(personaId())) {
+            return;
+        }
+
+        String dedupTimestamp = eventTimestamp != null ? eventTimestamp : messageId + ":" + userId + ":" + emojiName;
+        if (isDuplicate(channelId, dedupTimestamp, eventType)) {
+            return;
+        }
+
+        events().execute(channelId, eventTimestamp, () -> {
+            SlackMessage message = new SlackMessage(messageId, channelId, null);
+            for (MessageReactionCallback callback : callbacks) {
+                handleSafely(() -> callback.handleReaction(message, userId, emojiName));
             }
         });
     }
 
+    private boolean isDuplicate(String channelId, String timestamp, String eventType) {
+        if (eventDeduplicator == null || timestamp == null || eventDeduplicator.firstSeen(channelId, timestamp, eventType)) {
+            return false;
+        }
+        long duplicates = duplicateEventCount.incrementAndGet();
+        logger.debug("Skipping duplicated {} event {} in {} ({} so far)", eventType, timestamp, channelId, duplicates);
+        return true;
+    }
+
+    private void handleSafely(Runnable handler) {
+        try {
+            handler.run();
+        } catch (Exception e) {
+            logger.error("Can't handle event", e);
+        }
+    }
+
+
+    void fireActionCallbacks(String userId, SlackMessage parentMessage, String actionName, String actionValue, String callbackId) {
+        actionDispatcher().fire(userId, parentMessage, actionName, actionValue, callbackId);
+    }
+
+    CompletableFuture<Void> handleAction(ActionEvent event) {
+        return actionDispatcher().dispatch(event);
+    }
+
+    /**
+     * Replies to a clicked action through its response url. Unlike channel messages, it works
+     * also when the bot isn't a member of the channel. The reply is sent in background,
+     * replies to the same action are sent in order.
+     *
+     * @return future completed with false when slack rejected the reply, e.g. because the response url expired
+     */
+    public CompletableFuture<Boolean> respond(SlackMessage actionMessage, String text) {
+        String responseUrl = actionMessage.getResponseUrl();
+        if (responseUrl == null) {
+            throw new IllegalArgumentException("Message has no response url");
+        }
+        return asyncExecutor().submit(responseUrl, () -> postResponse(responseUrl, text));
+    }
+
+    private boolean postResponse(String responseUrl, String text) {
+        try {
+            restTemplate().postForEntity(responseUrl, Collections.singletonMap("text", text), String.class);
+            return true;
+        } catch (HttpStatusCodeException e) {
+            logger.warn("Slack rejected action response with {}: {}", e.getStatusCode(), e.getResponseBodyAsString());
+            return false;
+        } catch (ResourceAccessException e) {
+            logger.warn("Can't send action response: {}", e.getMessage());
+            return false;
+        }
+    }
+
 
     private void openSession() {
         if (slackSession.isConnected()) {
             return;
         }
 
-        try {
-            slackSession.disconnect();
-            slackSession.connect();
-        } catch (IOException e) {
-            throw new IllegalStateException("Can't open slack session", e);
+        synchronized (sessionLock) {
+            if (slackSession.isConnected()) {
+                return;
+            }
+
+            try {
+                metrics.recordReconnect();
+                personaId = null;
+                channelCache.clear();
+                slackSession.disconnect();
+                slackSession.connect();
+            } catch (IOException e) {
+                throw new IllegalStateException("Can't open slack session", e);
+            }
+            refreshDirectory();
+        }
+    }
+
+    private SlackDirectory directory() {
+        SlackDirectory current = directory.get();
+        if (current == SlackDirectory.EMPTY) {
+            return refreshDirectory();
+        }
+        return current;
+    }
+
+    private void updateDirectoryUser(SlackUser user) {
+        if (user == null || user.getId() == null) {
+            return;
+        }
+        logger.debug("Updating user {} in directory", user.getId());
+        directory.updateAndGet(current -> current == SlackDirectory.EMPTY ? current : current.withUser(user));
+    }
+
+    /**
+     * Forgets the changed channel, so its name and id are read from the session until the next reconciliation.
+     */
+    private void evictChannel(SlackChannel channel) {
+        if (channel == null || channel.getId() == null) {
+            return;
+        }
+        logger.debug("Evicting channel {} from directory", channel.getId());
+        channelCache.invalidate(channel.getId());
+        directory.updateAndGet(current -> current.withoutChannel(channel.getId()));
+    }
+
+    private SlackDirectory refreshDirectory() {
+        SlackDirectory refreshed = SlackDirectory.of(slackSession.getUsers(), slackSession.getChannels());
+        directory.set(refreshed);
+        return refreshed;
+    }
+
+    private SlackMessage sendPreparedMessage(SlackBroadcast.Target target, SlackPreparedMessage preparedMessage) {
+        openSession();
+        SlackChannel channel = target.isUser() ? openDirectMessageChannel(target.getId()) : channel(target.getId());
+        if (channel == null) {
+            throw new IllegalArgumentException("Unknown " + target);
+        }
+
+        return rateLimitedInChannel(SlackApiMethod.CHAT_POST_MESSAGE, channel, () ->
+                toChannelMessage(channel, slackSession.sendMessage(channel, preparedMessage)));
+    }
+
+    private SlackChannel channel(String channelId) {
+        return channelCache.channel(channelId, slackSession::findChannelById);
+    }
+
+    private SlackChannel openDirectMessageChannel(String userId) {
+        return channelCache.directChannel(userId, id -> {
+            SlackUser userById = slackSession.findUserById(id);
+            return rateLimited(SlackApiMethod.IM_OPEN, null, () ->
+                    checkRateLimit(slackSession.openDirectMessageChannel(userById)).getSlackChannel());
+        });
+    }
+
+    private OrderedExecutor asyncExecutor() {
+        OrderedExecutor executor = asyncExecutor;
+        if (executor != null) {
+            return executor;
+        }
+
+        synchronized (sessionLock) {
+            if (asyncExecutor == null) {
+                asyncExecutor = new OrderedExecutor("slack-async", asyncThreads, asyncQueueCapacity);
+            }
+            return asyncExecutor;
+        }
+    }
+
+    private RestTemplate restTemplate() {
+        RestTemplate template = restTemplate;
+        if (template != null) {
+            return template;
+        }
+
+        synchronized (sessionLock) {
+            if (restTemplate == null) {
+                SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+                requestFactory.setConnectTimeout(respondConnectTimeoutMillis);
+                requestFactory.setReadTimeout(respondReadTimeoutMillis);
+                restTemplate = new RestTemplate(requestFactory);
+            }
+            return restTemplate;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        shuttingDown = true;
+        if (eventExecutor != null) {
+            eventExecutor.shutdown();
+        }
+        if (actionDispatcher != null) {
+            actionDispatcher.shutdown();
+        }
+        if (messageAggregator != null) {
+            messageAggregator.shutdown();
+        }
+        if (updateCoalescer != null) {
+            updateCoalescer.shutdown();
+        }
+        if (asyncExecutor != null) {
+            asyncExecutor.shutdown();
+        }
+    }
+
+    private EventExecutor events() {
+        EventExecutor executor = eventExecutor;
+        if (executor != null) {
+            return executor;
+        }
+
+        synchronized (sessionLock) {
+            if (eventExecutor == null) {
+                OrderedExecutor pool = null;
+                if (asyncEvents && virtualEventThreads) {
+                    pool = OrderedExecutor.virtual("slack-event", eventThreads, eventQueueCapacity);
+                } else if (asyncEvents) {
+                    pool = new OrderedExecutor("slack-event", eventThreads, eventQueueCapacity);
+                }
+                eventExecutor = new EventExecutor(pool, eventQueueCapacity, eventOverflowPolicy);
+            }
+            return eventExecutor;
+        }
+    }
+
+    private ActionDispatcher actionDispatcher() {
+        ActionDispatcher dispatcher = actionDispatcher;
+        if (dispatcher != null) {
+            return dispatcher;
+        }
+
+        synchronized (sessionLock) {
+            if (actionDispatcher == null) {
+                OrderedExecutor executor = asyncActions ? new OrderedExecutor("slack-action", actionThreads, actionQueueCapacity) : null;
+                actionDispatcher = new ActionDispatcher(actionRegistry, executor);
+            }
+            return actionDispatcher;
+        }
+    }
+
+    private MessageAggregator messageAggregator() {
+        MessageAggregator aggregator = messageAggregator;
+        if (aggregator != null) {
+            return aggregator;
+        }
+
+        synchronized (sessionLock) {
+            if (messageAggregator == null) {
+                messageAggregator = new MessageAggregator((channelId, threadId, text) -> threadId == null
+                        ? sendChannelMessageAsync(channelId, text)
+                        : sendThreadMessageAsync(channelId, threadId, text),
+                        aggregateWindowMillis, aggregateMaxMessages, aggregateMaxLength);
+            }
+            return messageAggregator;
+        }
+    }
+
+    private MessageUpdateCoalescer updateCoalescer() {
+        MessageUpdateCoalescer coalescer = updateCoalescer;
+        if (coalescer != null) {
+            return coalescer;
+        }
+
+        synchronized (sessionLock) {
+            if (updateCoalescer == null) {
+                updateCoalescer = new MessageUpdateCoalescer(this::updateMessageAsync, updateMinIntervalMillis);
+            }
+            return updateCoalescer;
+        }
+    }
+
+    private ReactionPipeline reactionPipeline() {
+        ReactionPipeline pipeline = reactionPipeline;
+        if (pipeline != null) {
+            return pipeline;
+        }
+
+        synchronized (sessionLock) {
+            if (reactionPipeline == null) {
+                reactionPipeline = new ReactionPipeline(asyncExecutor(), this::applyReaction, preserveReactionOrder);
+            }
+            return reactionPipeline;
+        }
+    }
+
+    private void applyReaction(SlackMessage slackMessage, String reactionCode, boolean add) {
+        openSession();
+        SlackChannel channel = channel(slackMessage.getChannelId());
+
+        if (add) {
+            rateLimited(SlackApiMethod.REACTIONS_ADD, channel.getId(), () ->
+                    checkRateLimit(slackSession.addReactionToMessage(channel, slackMessage.getTimestamp(), reactionCode)));
+        } else {
+            rateLimited(SlackApiMethod.REACTIONS_REMOVE, channel.getId(), () ->
+                    checkRateLimit(slackSession.removeReactionFromMessage(channel, slackMessage.getTimestamp(), reactionCode)));
+        }
+    }
+
+    private void addReactionsInBackground(SlackMessage slackMessage, String... reactionCodes) {
+        if (reactionCodes.length == 0) {
+            return;
+        }
+
+        addReactionsAsync(slackMessage, reactionCodes).whenComplete((value, error) -> {
+            if (error != null) {
+                logger.error("Can't add reactions to message {} - {}", slackMessage.getChannelId(), slackMessage.getTimestamp(), error);
+            }
+        });
+    }
+
+    private SlackRateLimiter rateLimiter() {
+        SlackRateLimiter limiter = rateLimiter;
+        if (limiter != null) {
+            return limiter;
+        }
+
+        synchronized (sessionLock) {
+            if (rateLimiter == null) {
+                rateLimiter = new SlackRateLimiter(channelMessagesPerSecond, channelBurst, rateLimitMaxRetries, rateLimitRetryAfterMillis);
+            }
+            return rateLimiter;
+        }
+    }
+
+    private <T> T rateLimited(SlackApiMethod method, String channelId, Supplier<T> call) {
+        return withinRateLimit(method, channelId, () -> metrics.recordApiCall(method, call));
+    }
+
+    /**
+     * Waits for rate limit budget before taking the channel lock, so a waiting call doesn't block other senders of the channel.
+     * Only the call itself is timed, without waiting for the lock.
+     */
+    private <T> T rateLimitedInChannel(SlackApiMethod method, SlackChannel channel, Supplier<T> call) {
+        return withinRateLimit(method, channel.getId(), () -> inChannel(channel.getId(), () -> metrics.recordApiCall(method, call)));
+    }
+
+    private <T> T withinRateLimit(SlackApiMethod method, String channelId, Supplier<T> call) {
+        if (!rateLimitEnabled) {
+            return call.get();
         }
+        return rateLimiter().call(method, channelId, call);
+    }
+
+    private <T> T inChannel(String channelId, Supplier<T> action) {
+        return channelLocks.inChannel(perChannelConcurrency ? channelId : ChannelLocks.GLOBAL, action);
     }
 
-    private SlackMessage toChannelMessage(SlackChannel channel, SlackMessageHandle messageHandle) {
-        SlackReply reply = messageHandle.getReply();
+    private <T extends SlackReply> T checkRateLimit(SlackMessageHandle<T> messageHandle) {
+        T reply = messageHandle.getReply();
+        if (reply instanceof SlackReplyImpl && RATE_LIMITED_ERROR.equals(((SlackReplyImpl) reply).getErrorMessage())) {
+            throw new SlackRateLimitedException();
+        }
+        return reply;
+    }
+
+    private SlackMessage toChannelMessage(SlackChannel channel, SlackMessageHandle<SlackMessageReply> messageHandle) {
+        SlackReply reply = checkRateLimit(messageHandle);
         if (reply instanceof SlackMessageReply) {
             SlackMessageReply messageReply = (SlackMessageReply) reply;
             String timestamp = messageReply.getTimestamp();
@@ -234,35 +1041,54 @@ public class SlackService {
 
     public String getRealNameByUsername(String username) {
         openSession();
-        return slackSession.getUsers()
-                .parallelStream()
-                .filter(it -> it.getUserName().equals(username))
-                .findAny()
+        SlackDirectory.DirectoryUser user = directory().findUserByName(username);
+        if (user != null) {
+            return user.getRealName();
+        }
+
+        return Optional.ofNullable(slackSession.findUserByUserName(username))
                 .map(SlackUser::getRealName)
                 .orElse("Unknown");
     }
 
     public String getRealNameById(String userId) {
         openSession();
-        return slackSession.getUsers()
-                .parallelStream()
-                .filter(it -> it.getId().equals(userId))
-                .findAny()
+        SlackDirectory.DirectoryUser user = directory().findUserById(userId);
+        if (user != null) {
+            return user.getRealName();
+        }
+
+        return Optional.ofNullable(slackSession.findUserById(userId))
                 .map(SlackUser::getRealName)
                 .orElse("Unknown");
     }
 
     public String getChannelName(String channelId) {
         openSession();
+        String channelName = directory().findChannelName(channelId);
+        if (channelName != null) {
+            return channelName;
+        }
+
         return slackSession.findChannelById(channelId).getName();
     }
 
     public Optional<String> getChannelId(String channelName) {
         openSession();
+        String channelId = directory().findChannelId(channelName);
+        if (channelId != null) {
+            return Optional.of(channelId);
+        }
+
         return Optional.ofNullable(slackSession.findChannelByName(channelName)).map(SlackChannel::getId);
     }
 
     public String getUsername(String userId) {
+        SlackDirectory.DirectoryUser user = directory().findUserById(userId);
+        if (user != null) {
+            return user.getUserName();
+        }
+
         return slackSession.findUserById(userId).getUserName();
     }
 
@@ -270,6 +1096,53 @@ public class SlackService {
         return slackSession.isConnected();
     }
 
+    /**
+     * @return number of events skipped, because they were delivered again
+     */
+    public long getDuplicateEventCount() {
+        return duplicateEventCount.get();
+    }
+
+    /**
+     * @return number of full user reconciliations done so far
+     */
+    public long getReconciliationCount() {
+        return reconciliationCount.get();
+    }
+
+    public Duration getLastReconciliationDuration() {
+        return lastReconciliationDuration;
+    }
+
+    /**
+     * @return rate limiter of outbound calls, exposing their queue depth and wait time
+     */
+    public SlackRateLimiter getRateLimiter() {
+        return rateLimiter();
+    }
+
+    /**
+     * @return dispatcher of action callbacks, exposing action queue and latency statistics
+     */
+    public ActionDispatcher getActionDispatcher() {
+        return actionDispatcher();
+    }
+
+    /**
+     * @return event executor or null when it wasn't needed yet. Unlike {@link #getEventExecutor()}, it doesn't create one.
+     */
+    EventExecutor startedEventExecutor() {
+        return eventExecutor;
+    }
+
+    SlackRateLimiter startedRateLimiter() {
+        return rateLimiter;
+    }
+
+    ActionDispatcher startedActionDispatcher() {
+        return actionDispatcher;
+    }
+
     @FunctionalInterface
     public interface MessageReactionCallback {
         void handleReaction(SlackMessage slackMessage, String userId, String reactionCode);
@@ -285,6 +1158,36 @@ public class SlackService {
         void handleMessage(SlackMessage slackMessage, String threadId, String callback);
     }
 
+    @FunctionalInterface
+    public interface LazyMessageCallback {
+        /**
+         * @param slackMessage supplier of the message, it's created on first call
+         * @param threadId     thread timestamp or null for messages outside of threads
+         */
+        void handleMessage(Supplier<SlackMessage> slackMessage, String threadId, String content);
+    }
+
+    private static class LazySlackMessage implements Supplier<SlackMessage> {
+        private final String timestamp;
+        private final String channelId;
+        private final String senderId;
+        private SlackMessage message;
+
+        LazySlackMessage(String timestamp, String channelId, String senderId) {
+            this.timestamp = timestamp;
+            this.channelId = channelId;
+            this.senderId = senderId;
+        }
+
+        @Override
+        public SlackMessage get() {
+            if (message == null) {
+                message = new SlackMessage(timestamp, channelId, senderId);
+            }
+            return message;
+        }
+    }
+
     @FunctionalInterface
     public interface ActionCallback {
         void handleMessage(SlackMessage slackMessage, String userId, String actionName, String actionValue);
@@ -0,0 +1,76 @@
+package com.leanforge.game.slack;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies that a request was signed by slack with the app signing secret:
+ * {@code v0=hex(hmac_sha256(secret, "v0:" + timestamp + ":" + body))}.
+ * Requests older than the tolerance are rejected, so recorded requests can't be replayed.
+ */
+class SlackSignatureVerifier {
+
+    private static final String VERSION = "v0";
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final SecretKeySpec key;
+    private final long toleranceSeconds;
+    private final Clock clock;
+    private final ThreadLocal<Mac> macs;
+
+    SlackSignatureVerifier(String signingSecret, long toleranceSeconds, Clock clock) {
+        this.key = new SecretKeySpec(signingSecret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.toleranceSeconds = toleranceSeconds;
+        this.clock = clock;
+        this.macs = ThreadLocal.withInitial(this::createMac);
+    }
+
+    boolean verify(String timestamp, String body, String signature) {
+        if (timestamp == null || signature == null || body == null) {
+            return false;
+        }
+
+        long requestTime;
+        try {
+            requestTime = Long.parseLong(timestamp);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        long now = TimeUnit.MILLISECONDS.toSeconds(clock.millis());
+        if (Math.abs(now - requestTime) > toleranceSeconds) {
+            return false;
+        }
+
+        byte[] expected = sign(timestamp, body).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    String sign(String timestamp, String body) {
+        Mac mac = macs.get();
+        mac.update((VERSION + ":" + timestamp + ":").getBytes(StandardCharsets.UTF_8));
+        byte[] digest = mac.doFinal(body.getBytes(StandardCharsets.UTF_8));
+
+        char[] hex = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            hex[i * 2] = HEX[(digest[i] >> 4) & 0xf];
+            hex[i * 2 + 1] = HEX[digest[i] & 0xf];
+        }
+        return VERSION + "=" + new String(hex);
+    }
+
+    private Mac createMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Can't create " + ALGORITHM, e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.leanforge.game.slack;
+
+/**
+ * Token bucket which hands out reservations: a caller always gets its token,
+ * but may be told to wait until the token is refilled.
+ */
+class TokenBucket {
+
+    private final double tokensPerNano;
+    private final double capacity;
+
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(double tokensPerSecond, double capacity) {
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+        this.capacity = capacity;
+        this.tokens = capacity;
+        this.refilledAt = System.nanoTime();
+    }
+
+    /**
+     * Takes one token.
+     *
+     * @return nanos to wait before the token can be used
+     */
+    synchronized long reserve() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+        tokens -= 1;
+
+        if (tokens >= 0) {
+            return 0;
+        }
+
+        return (long) Math.ceil(-tokens / tokensPerNano);
+    }
+}
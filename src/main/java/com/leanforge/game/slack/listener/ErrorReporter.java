@@ -0,0 +1,151 @@
+package com.leanforge.game.slack.listener;
+
+import com.leanforge.game.slack.SlackMetrics;
+import com.leanforge.game.slack.SlackService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replies to channels with handler failures. The first failure in a channel is reported right away,
+ * further failures within the window are summarized in one message when the window ends.
+ * Exceptions annotated with {@link ResponseStatus} are answers to the user, so they are always sent.
+ */
+class ErrorReporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ErrorReporter.class);
+
+    private static final int MAX_CAUSE_DEPTH = 16;
+    private static final String GENERIC_MESSAGE = "Failed to handle message. Contact bot author(s).";
+
+    private final SlackService slackService;
+    private final SlackMetrics metrics;
+    private final ConcurrentMap<Class<?>, Optional<String>> reasons = new ConcurrentHashMap<>();
+    private final Map<String, ChannelWindow> windows = new HashMap<>();
+    private final long windowMillis;
+    private volatile ScheduledExecutorService scheduler;
+
+    ErrorReporter(SlackService slackService, SlackMetrics metrics, long windowMillis) {
+        this.slackService = slackService;
+        this.metrics = metrics;
+        this.windowMillis = windowMillis;
+    }
+
+    void report(String channel, Throwable e) {
+        metrics.recordError(e);
+        Optional<String> reason = reason(e);
+        if (reason.isPresent() || windowMillis <= 0) {
+            send(channel, reason.orElseGet(() -> genericMessage(e)));
+            return;
+        }
+
+        String message = genericMessage(e);
+        synchronized (this) {
+            ChannelWindow current = windows.get(channel);
+            if (current != null) {
+                current.suppressed++;
+                current.lastMessage = message;
+                return;
+            }
+            windows.put(channel, new ChannelWindow());
+            scheduler().schedule(() -> closeWindow(channel), windowMillis, TimeUnit.MILLISECONDS);
+        }
+        send(channel, message);
+    }
+
+    String message(Throwable e) {
+        return reason(e).orElseGet(() -> genericMessage(e));
+    }
+
+    /**
+     * @return reason of the first {@link ResponseStatus} exception in the cause chain
+     */
+    private Optional<String> reason(Throwable e) {
+        Throwable current = e;
+        for (int depth = 0; depth < MAX_CAUSE_DEPTH; depth++) {
+            Optional<String> reason = reasons.computeIfAbsent(current.getClass(), ErrorReporter::resolveReason);
+            if (reason.isPresent()) {
+                return reason.get().isEmpty() ? Optional.ofNullable(current.getMessage()) : reason;
+            }
+
+            Throwable cause = current.getCause();
+            if (!(cause instanceof Exception) || cause == current) {
+                break;
+            }
+            current = cause;
+        }
+        return Optional.empty();
+    }
+
+    private static String genericMessage(Throwable e) {
+        if (e instanceof InvocationTargetException) {
+            return NestedExceptionUtils.buildMessage(GENERIC_MESSAGE, e.getCause());
+        }
+        return NestedExceptionUtils.buildMessage(GENERIC_MESSAGE, e);
+    }
+
+    void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    private void closeWindow(String channel) {
+        ChannelWindow closed;
+        synchronized (this) {
+            closed = windows.remove(channel);
+            if (closed == null || closed.suppressed == 0) {
+                return;
+            }
+            // failures keep coming, so the next ones are summarized too
+            windows.put(channel, new ChannelWindow());
+            scheduler().schedule(() -> closeWindow(channel), windowMillis, TimeUnit.MILLISECONDS);
+        }
+
+        send(channel, String.format("%d more failure(s) in the last %d s. The last one: %s",
+                closed.suppressed, TimeUnit.MILLISECONDS.toSeconds(windowMillis), closed.lastMessage));
+    }
+
+    private void send(String channel, String message) {
+        slackService.sendChannelMessageAsync(channel, message).whenComplete((value, error) -> {
+            if (error != null) {
+                logger.error("Can't report error to channel {}", channel, error);
+            }
+        });
+    }
+
+    private ScheduledExecutorService scheduler() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "slack-error-reporter");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return scheduler;
+    }
+
+    /**
+     * @return reason of {@link ResponseStatus}, empty when the exception isn't annotated
+     */
+    private static Optional<String> resolveReason(Class<?> type) {
+        ResponseStatus responseStatus = type.getAnnotation(ResponseStatus.class);
+        return responseStatus == null ? Optional.empty() : Optional.of(responseStatus.reason());
+    }
+
+    private static class ChannelWindow {
+        private int suppressed;
+        private String lastMessage;
+    }
+}
@@ -0,0 +1,139 @@
+package com.leanforge.game.slack.listener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Routes message text to handlers registered for regular expressions.
+ * Patterns starting with a literal prefix are indexed by its first character,
+ * so for each message only patterns which can possibly match are evaluated.
+ * Patterns without literal prefix are evaluated for every message.
+ */
+class MessageRouter<T> {
+
+    private static final String META_CHARACTERS = "\\^$.|?*+()[]{}";
+
+    private volatile Routes<T> routes = new Routes<>(Collections.emptyMap(), Collections.emptyList());
+
+    private int sequence = 0;
+
+    synchronized void addRoute(Pattern pattern, T handler) {
+        Route<T> route = new Route<>(sequence++, pattern, literalPrefix(pattern.pattern()), handler);
+
+        Map<Character, List<Route<T>>> indexed = new HashMap<>(routes.indexed);
+        List<Route<T>> unindexed = routes.unindexed;
+
+        if (route.prefix.isEmpty()) {
+            unindexed = append(unindexed, route);
+        } else {
+            indexed.put(route.prefix.charAt(0), append(indexed.getOrDefault(route.prefix.charAt(0), Collections.emptyList()), route));
+        }
+
+        routes = new Routes<>(indexed, unindexed);
+    }
+
+    boolean isEmpty() {
+        return routes.indexed.isEmpty() && routes.unindexed.isEmpty();
+    }
+
+    /**
+     * Invokes consumer for every handler which pattern matches whole text, in registration order.
+     */
+    void route(String text, BiConsumer<T, Matcher> consumer) {
+        Routes<T> current = routes;
+        List<Route<T>> candidates = text.isEmpty() ? Collections.emptyList() : current.indexed.getOrDefault(text.charAt(0), Collections.emptyList());
+        List<Route<T>> unindexed = current.unindexed;
+
+        int i = 0;
+        int y = 0;
+        while (i < candidates.size() || y < unindexed.size()) {
+            Route<T> route;
+            if (y >= unindexed.size() || (i < candidates.size() && candidates.get(i).order < unindexed.get(y).order)) {
+                route = candidates.get(i++);
+                if (!text.startsWith(route.prefix)) {
+                    continue;
+                }
+            } else {
+                route = unindexed.get(y++);
+            }
+
+            Matcher matcher = route.pattern.matcher(text);
+            if (matcher.matches()) {
+                consumer.accept(route.handler, matcher);
+            }
+        }
+    }
+
+    /**
+     * Finds literal text which every match of the pattern has to start with.
+     * It's conservative: in case of any doubt empty prefix is returned.
+     */
+    static String literalPrefix(String regex) {
+        if (regex.indexOf('|') >= 0) {
+            return "";
+        }
+
+        StringBuilder prefix = new StringBuilder();
+        int i = 0;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            int length = 1;
+            if (c == '\\') {
+                if (i + 1 >= regex.length() || Character.isLetterOrDigit(regex.charAt(i + 1))) {
+                    break;
+                }
+                c = regex.charAt(i + 1);
+                length = 2;
+            } else if (META_CHARACTERS.indexOf(c) >= 0) {
+                break;
+            }
+
+            int next = i + length;
+            if (next < regex.length() && "?*{".indexOf(regex.charAt(next)) >= 0) {
+                break;
+            }
+
+            prefix.append(c);
+            i = next;
+        }
+
+        return prefix.toString();
+    }
+
+    private static <T> List<Route<T>> append(List<Route<T>> routes, Route<T> route) {
+        List<Route<T>> result = new ArrayList<>(routes.size() + 1);
+        result.addAll(routes);
+        result.add(route);
+        return Collections.unmodifiableList(result);
+    }
+
+    private static class Routes<T> {
+        private final Map<Character, List<Route<T>>> indexed;
+        private final List<Route<T>> unindexed;
+
+        Routes(Map<Character, List<Route<T>>> indexed, List<Route<T>> unindexed) {
+            this.indexed = indexed;
+            this.unindexed = unindexed;
+        }
+    }
+
+    private static class Route<T> {
+        private final int order;
+        private final Pattern pattern;
+        private final String prefix;
+        private final T handler;
+
+        Route(int order, Pattern pattern, String prefix, T handler) {
+            this.order = order;
+            this.pattern = pattern;
+            this.prefix = prefix;
+            this.handler = handler;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.leanforge.game.slack.listener;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.ClassUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Listener methods found at compile time by {@link SlackHandlerIndexProcessor}.
+ * Each line of the index is either a {@code type} entry, for a class processed at compile time,
+ * or a {@code method} entry with declaring class, method name and erased parameter types.
+ */
+class SlackHandlerIndex {
+
+    static final String LOCATION = "META-INF/spring-slack/handlers.idx";
+
+    private static final Logger logger = LoggerFactory.getLogger(SlackHandlerIndex.class);
+    private static final String SEPARATOR = "\t";
+
+    private final Map<String, List<String[]>> methodsByType;
+
+    private SlackHandlerIndex(Map<String, List<String[]>> methodsByType) {
+        this.methodsByType = methodsByType;
+    }
+
+    static String typeEntry(String type) {
+        return "type" + SEPARATOR + type;
+    }
+
+    static String methodEntry(String type, String name, String... parameterTypes) {
+        return "method" + SEPARATOR + type + SEPARATOR + name + SEPARATOR + String.join(",", parameterTypes);
+    }
+
+    static SlackHandlerIndex load(ClassLoader classLoader) {
+        Map<String, List<String[]>> methodsByType = new HashMap<>();
+        try {
+            ClassLoader loader = classLoader == null ? ClassUtils.getDefaultClassLoader() : classLoader;
+            Enumeration<URL> resources = loader.getResources(LOCATION);
+            while (resources.hasMoreElements()) {
+                URL resource = resources.nextElement();
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8))) {
+                    reader.lines().forEach(line -> addEntry(methodsByType, line));
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Can't read slack handler index, controllers will be scanned", e);
+            return new SlackHandlerIndex(Collections.emptyMap());
+        }
+        return new SlackHandlerIndex(methodsByType);
+    }
+
+    private static void addEntry(Map<String, List<String[]>> methodsByType, String line) {
+        String[] parts = line.split(SEPARATOR, -1);
+        if (parts.length == 2 && "type".equals(parts[0])) {
+            methodsByType.computeIfAbsent(parts[1], it -> new ArrayList<>());
+        } else if (parts.length == 4 && "method".equals(parts[0])) {
+            methodsByType.computeIfAbsent(parts[1], it -> new ArrayList<>()).add(new String[]{parts[2], parts[3]});
+        }
+    }
+
+    /**
+     * Methods overridden in a subclass are returned once, as declared by the most derived class.
+     *
+     * @return listener methods of the type and its superclasses or null when any of them wasn't indexed
+     */
+    List<Method> findListenerMethods(Class<?> type) {
+        Map<String, Method> methods = new LinkedHashMap<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            List<String[]> entries = methodsByType.get(current.getName());
+            if (entries == null) {
+                return null;
+            }
+            for (String[] entry : entries) {
+                Method method = resolve(current, entry[0], entry[1]);
+                if (method == null) {
+                    return null;
+                }
+                methods.putIfAbsent(method.getName() + Arrays.toString(method.getParameterTypes()), method);
+            }
+        }
+        return new ArrayList<>(methods.values());
+    }
+
+    private static Method resolve(Class<?> type, String name, String parameterTypeNames) {
+        try {
+            String[] names = parameterTypeNames.isEmpty() ? new String[0] : parameterTypeNames.split(",");
+            Class<?>[] parameterTypes = new Class<?>[names.length];
+            for (int i = 0; i < names.length; i++) {
+                parameterTypes[i] = ClassUtils.forName(names[i], type.getClassLoader());
+            }
+            return type.getMethod(name, parameterTypes);
+        } catch (ClassNotFoundException | NoSuchMethodException | LinkageError e) {
+            logger.debug("Stale slack handler index entry {}#{}", type.getName(), name, e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.leanforge.game.slack.listener;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Writes {@link SlackHandlerIndex#LOCATION} with listener methods of compiled classes,
+ * so {@link SlackMessageEventListenerSupport} doesn't have to scan controllers at startup.
+ * It's registered in {@code META-INF/services}, so it runs for every project compiled with this library.
+ */
+public class SlackHandlerIndexProcessor extends AbstractProcessor {
+
+    private static final List<Class<?>> LISTENER_ANNOTATIONS = Arrays.asList(
+            SlackMessageListener.class,
+            SlackThreadMessageListener.class,
+            SlackActionListener.class,
+            SlackReactionListener.class);
+
+    private final Set<String> entries = new TreeSet<>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        Set<String> types = LISTENER_ANNOTATIONS.stream()
+                .map(Class::getCanonicalName)
+                .collect(Collectors.toCollection(HashSet::new));
+        types.add(SlackController.class.getCanonicalName());
+        return types;
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.CLASS) {
+                    entries.add(SlackHandlerIndex.typeEntry(binaryName((TypeElement) element)));
+                } else if (element.getKind() == ElementKind.METHOD && element.getModifiers().contains(Modifier.PUBLIC)) {
+                    addMethod((ExecutableElement) element);
+                }
+            }
+        }
+
+        if (roundEnv.processingOver() && !entries.isEmpty()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    private void addMethod(ExecutableElement method) {
+        TypeElement type = (TypeElement) method.getEnclosingElement();
+        String[] parameterTypes = new String[method.getParameters().size()];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            VariableElement parameter = method.getParameters().get(i);
+            parameterTypes[i] = processingEnv.getTypeUtils().erasure(parameter.asType()).toString();
+        }
+        entries.add(SlackHandlerIndex.typeEntry(binaryName(type)));
+        entries.add(SlackHandlerIndex.methodEntry(binaryName(type), method.getSimpleName().toString(), parameterTypes));
+    }
+
+    private String binaryName(TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+
+    private void writeIndex() {
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SlackHandlerIndex.LOCATION);
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (String entry : entries) {
+                    writer.write(entry);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Can't write slack handler index: " + e.getMessage());
+        }
+    }
+}
@@ -1,27 +1,38 @@
 package com.leanforge.game.slack.listener;
 
 import com.leanforge.game.slack.SlackMessage;
+import com.leanforge.game.slack.SlackMetrics;
 import com.leanforge.game.slack.SlackService;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
-import org.springframework.core.NestedExceptionUtils;
 import org.springframework.stereotype.Component;
-import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.util.ClassUtils;
 
+import javax.annotation.PreDestroy;
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.Set;
-import java.util.function.Function;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Stream;
 
 @Component
 public class SlackMessageEventListenerSupport {
@@ -30,56 +41,166 @@ public class SlackMessageEventListenerSupport {
 
     private final SlackService slackService;
     private final ApplicationContext applicationContext;
+    private final SlackMetrics metrics;
+    private final Timer messageMatchTimer;
+    private final Timer threadMatchTimer;
+    private final ErrorReporter errorReporter;
+    private final Map<SlackReactionListener.Action, Map<String, List<ReactionHandler>>> reactionHandlers = new EnumMap<>(SlackReactionListener.Action.class);
+    private final MessageRouter<MessageHandler> messageRouter = new MessageRouter<>();
+    private final MessageRouter<MessageHandler> threadMessageRouter = new MessageRouter<>();
 
 
-    @Autowired
     public SlackMessageEventListenerSupport(SlackService slackService, ApplicationContext applicationContext) {
+        this(slackService, applicationContext, SlackMetrics.noop());
+    }
+
+    public SlackMessageEventListenerSupport(SlackService slackService, ApplicationContext applicationContext, SlackMetrics metrics) {
+        this(slackService, applicationContext, metrics, 0);
+    }
+
+    /**
+     * @param errorWindowMillis failures in a channel within this window are reported in one summary message, 0 reports every failure
+     */
+    @Autowired
+    public SlackMessageEventListenerSupport(SlackService slackService, ApplicationContext applicationContext, SlackMetrics metrics,
+                                            @Value("${slack.errors.window-ms:0}") long errorWindowMillis) {
         this.slackService = slackService;
         this.applicationContext = applicationContext;
+        this.metrics = metrics;
+        this.messageMatchTimer = metrics.matchTimer(SlackMetrics.MESSAGE);
+        this.threadMatchTimer = metrics.matchTimer(SlackMetrics.THREAD);
+        this.errorReporter = new ErrorReporter(slackService, metrics, errorWindowMillis);
+        for (SlackReactionListener.Action action : SlackReactionListener.Action.values()) {
+            reactionHandlers.put(action, new ConcurrentHashMap<>());
+        }
 
         registerHandlers();
+        subscribe();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        errorReporter.shutdown();
+    }
+
+    private void subscribe() {
+        if (!messageRouter.isEmpty()) {
+            slackService.addLazyMessageListener((msg, threadId, txt) -> dispatchMessage(msg, txt));
+        }
+
+        if (!threadMessageRouter.isEmpty()) {
+            slackService.addLazyThreadListener(this::dispatchThreadMessage);
+        }
+
+        if (!reactionHandlers.get(SlackReactionListener.Action.ADD).isEmpty()) {
+            slackService.addReactionListener((msg, userId, reactionCode) -> dispatchReaction(SlackReactionListener.Action.ADD, msg, userId, reactionCode));
+        }
+
+        if (!reactionHandlers.get(SlackReactionListener.Action.REMOVE).isEmpty()) {
+            slackService.addRemoveReactionListener((msg, userId, reactionCode) -> dispatchReaction(SlackReactionListener.Action.REMOVE, msg, userId, reactionCode));
+        }
+    }
+
+    void dispatchReaction(SlackReactionListener.Action action, SlackMessage msg, String userId, String reactionCode) {
+        List<ReactionHandler> handlers = reactionCode == null ? null : reactionHandlers.get(action).get(reactionCode);
+        if (handlers == null) {
+            return;
+        }
+        for (ReactionHandler handler : handlers) {
+            handler.handle(msg, userId);
+        }
+    }
+
+    void dispatchMessage(SlackMessage msg, String txt) {
+        dispatchMessage(() -> msg, txt);
+    }
+
+    /**
+     * The message is created only when some handler matches the text.
+     */
+    void dispatchMessage(Supplier<SlackMessage> msg, String txt) {
+        if (txt == null) {
+            return;
+        }
+        route(messageRouter, messageMatchTimer, txt, (handler, matcher) -> handler.handle(msg.get(), txt, matcher, null));
+    }
+
+    void dispatchThreadMessage(SlackMessage msg, String threadId, String txt) {
+        dispatchThreadMessage(() -> msg, threadId, txt);
+    }
+
+    void dispatchThreadMessage(Supplier<SlackMessage> msg, String threadId, String txt) {
+        if (txt == null) {
+            return;
+        }
+        route(threadMessageRouter, threadMatchTimer, txt, (handler, matcher) -> handler.handle(msg.get(), txt, matcher, threadId));
+    }
+
+    /**
+     * Routes the text, recording time spent on matching separately from handling.
+     */
+    private void route(MessageRouter<MessageHandler> router, Timer matchTimer, String txt, BiConsumer<MessageHandler, Matcher> consumer) {
+        long start = System.nanoTime();
+        long[] handlingTime = new long[1];
+        router.route(txt, (handler, matcher) -> {
+            long handlingStart = System.nanoTime();
+            try {
+                consumer.accept(handler, matcher);
+            } finally {
+                handlingTime[0] += System.nanoTime() - handlingStart;
+            }
+        });
+        matchTimer.record(System.nanoTime() - start - handlingTime[0], TimeUnit.NANOSECONDS);
     }
 
     void registerHandlers() {
         Map<String, Object> beansWithAnnotation = applicationContext.getBeansWithAnnotation(SlackController.class);
-        beansWithAnnotation.values().parallelStream()
-                .forEach(this::addHandlers);
-    }
+        if (beansWithAnnotation.isEmpty()) {
+            return;
+        }
 
+        SlackHandlerIndex index = SlackHandlerIndex.load(applicationContext.getClassLoader());
+        beansWithAnnotation.values().forEach(bean -> addHandlers(bean, index));
+    }
 
     void addHandlers(Object bean) {
-        Stream.of(bean.getClass().getMethods())
-                .parallel()
-                .filter(this::isMessageCallback)
-                .forEach(it -> addMessageHandler(bean, it));
-
-        Stream.of(bean.getClass().getMethods())
-                .parallel()
-                .filter(this::isReactionCallback)
-                .forEach(it -> addReactionHandler(bean, it));
+        addHandlers(bean, null);
+    }
 
-        Stream.of(bean.getClass().getMethods())
-                .parallel()
-                .filter(this::isThreadCallback)
-                .forEach(it -> addThreadMessageHandler(bean, it));
+    /**
+     * Registers listener methods of the bean. Methods are taken from the index generated at compile time,
+     * the bean is scanned only when its class wasn't indexed.
+     */
+    private void addHandlers(Object bean, SlackHandlerIndex index) {
+        List<Method> methods = index == null ? null : index.findListenerMethods(ClassUtils.getUserClass(bean));
+        if (methods == null) {
+            logger.debug("Scanning {} for slack listeners", bean.getClass());
+            methods = Arrays.asList(bean.getClass().getMethods());
+        }
 
-        Stream.of(bean.getClass().getMethods())
-                .parallel()
-                .filter(this::isActionCallback)
-                .forEach(it -> addActionHandler(bean, it));
+        for (Method method : methods) {
+            if (isMessageCallback(method)) {
+                addMessageHandler(bean, method);
+            }
+            if (isReactionCallback(method)) {
+                addReactionHandler(bean, method);
+            }
+            if (isThreadCallback(method)) {
+                addThreadMessageHandler(bean, method);
+            }
+            if (isActionCallback(method)) {
+                addActionHandler(bean, method);
+            }
+        }
     }
 
     private void addMessageHandler(Object bean, Method method) {
         SlackMessageListener annotation = method.getAnnotation(SlackMessageListener.class);
         Pattern pattern = Pattern.compile(annotation.value());
         logger.info("Adding message listener for message {}", annotation.value());
-        SlackMethodInvoker invoker = createAnnotationBasedInvoker(method, bean);
+        SlackMethodInvoker invoker = timed(createAnnotationBasedInvoker(method, bean), SlackMetrics.MESSAGE, bean, method);
 
-        slackService.addMessageListener((msg, txt) -> {
-            Matcher matcher = pattern.matcher(txt);
-            if (!matcher.matches()) {
-                return;
-            }
+        messageRouter.addRoute(pattern, (msg, txt, matcher, threadId) -> {
             logger.debug("Handling message for pattern {} in channel {}", pattern, msg.getChannelId());
             try {
                 if (annotation.sendTyping()) {
@@ -100,13 +221,9 @@ public class SlackMessageEventListenerSupport {
         SlackThreadMessageListener annotation = method.getAnnotation(SlackThreadMessageListener.class);
         Pattern pattern = Pattern.compile(annotation.value());
         logger.info("Adding thread message listener for message {}", annotation.value());
-        SlackMethodInvoker invoker = createAnnotationBasedInvoker(method, bean);
+        SlackMethodInvoker invoker = timed(createAnnotationBasedInvoker(method, bean), SlackMetrics.THREAD, bean, method);
 
-        slackService.addThreadListener((msg, threadId, txt) -> {
-            Matcher matcher = pattern.matcher(txt);
-            if (!matcher.matches()) {
-                return;
-            }
+        threadMessageRouter.addRoute(pattern, (msg, txt, matcher, threadId) -> {
             logger.debug("Handling message for pattern {} in channel {}", pattern, msg.getChannelId());
             try {
                 invoker.invoke(msg, msg.getSenderId(), txt, matcher, threadId);
@@ -122,17 +239,10 @@ public class SlackMessageEventListenerSupport {
 
     private void addActionHandler(Object bean, Method method) {
         SlackActionListener annotation = method.getAnnotation(SlackActionListener.class);
-        logger.info("Adding thread message listener for action {}.{}", annotation.actionName(), annotation.actionValue());
-        SlackMethodInvoker invoker = createAnnotationBasedInvoker(method, bean);
+        logger.info("Adding action listener for action {}.{}", annotation.actionName(), annotation.actionValue());
+        SlackMethodInvoker invoker = timed(createAnnotationBasedInvoker(method, bean), SlackMetrics.ACTION, bean, method);
 
-        slackService.addActionListener((SlackMessage slackMessage, String userId, String actionName, String actionValue) -> {
-            if (!annotation.actionName().equals(actionName)) {
-                return;
-            }
-
-            if (!"*".equals(annotation.actionValue()) && !annotation.actionValue().equals(actionValue)) {
-                return;
-            }
+        slackService.addActionListener(annotation.actionName(), annotation.actionValue(), (SlackMessage slackMessage, String userId, String actionName, String actionValue) -> {
             logger.debug("Handling action {}.{} for user {}", actionName, actionValue, userId);
             try {
                 invoker.invoke(slackMessage, userId, actionValue, null);
@@ -151,12 +261,9 @@ public class SlackMessageEventListenerSupport {
         SlackReactionListener.Action action = annotation.action();
         String reaction = annotation.value();
         logger.info("Adding reaction listener for :{}: {}", reaction, action);
-        SlackMethodInvoker invoker = createAnnotationBasedInvoker(method, bean);
+        SlackMethodInvoker invoker = timed(createAnnotationBasedInvoker(method, bean), SlackMetrics.REACTION, bean, method);
 
-        SlackService.MessageReactionCallback callback = (message, userId, reactionCode) -> {
-            if (!reactionCode.equals(reaction)) {
-                return;
-            }
+        ReactionHandler handler = (message, userId) -> {
             logger.debug("Handling reaction {} - {} in channel {}", reaction, action, message.getChannelId());
             try {
                 invoker.invoke(message, userId, null, null);
@@ -169,83 +276,135 @@ public class SlackMessageEventListenerSupport {
             }
         };
 
-        switch (action) {
-            case ADD:
-                slackService.addReactionListener(callback);
-                break;
-            case REMOVE:
-                slackService.addRemoveReactionListener(callback);
-                break;
-        }
+        reactionHandlers.get(action)
+                .computeIfAbsent(reaction, it -> new CopyOnWriteArrayList<>())
+                .add(handler);
     }
 
-    private void reportError(String channel, Exception e) {
-        String msg = findExceptionWithResponseStatus(new HashSet<>(), e)
-                .map(it -> Optional.of(it.getClass().getAnnotation(ResponseStatus.class).reason()).filter(v -> !v.isEmpty()).orElse(it.getMessage()))
-                .orElseGet(() -> stackedMessage(e));
-        slackService.sendChannelMessage(channel, msg);
+    private SlackMethodInvoker timed(SlackMethodInvoker invoker, String eventType, Object bean, Method method) {
+        Timer timer = metrics.handlerTimer(eventType, ClassUtils.getUserClass(bean).getSimpleName() + "#" + method.getName());
+        return (slackMessage, userId, messageContent, matcher, threadId) -> {
+            long start = System.nanoTime();
+            try {
+                invoker.invoke(slackMessage, userId, messageContent, matcher, threadId);
+            } finally {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        };
     }
 
-    private String stackedMessage(Throwable e) {
-        if (e instanceof InvocationTargetException) {
-            return NestedExceptionUtils.buildMessage("Failed to handle message. Contact bot author(s).", e.getCause());
-        }
+    private void reportError(String channel, Throwable e) {
+        errorReporter.report(channel, e);
+    }
+
+    SlackMethodInvoker createAnnotationBasedInvoker(Method method, Object obj) {
+
+        PrecompiledParams precompiledParams = new PrecompiledParams(method);
+        MethodHandle methodHandle = compileMethodHandle(method, obj);
+
+        return ((slackMessage, userId, messageContent, matcher, threadId) -> {
+
+            Object[] params = precompiledParams.buildParams(slackMessage, userId, messageContent, matcher, threadId);
 
-        return NestedExceptionUtils.buildMessage("Failed to handle message. Contact bot author(s).", e);
+            Object result;
+            try {
+                result = (Object) methodHandle.invokeExact(params);
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e);
+            }
+
+            if (result instanceof CompletionStage) {
+                ((CompletionStage<?>) result)
+                        .thenCompose(value -> handleResultAsync(slackMessage, threadId, value))
+                        .whenComplete((value, error) -> {
+                            if (error != null) {
+                                reportAsyncError(slackMessage.getChannelId(), error);
+                            }
+                        });
+                return;
+            }
+
+            handleResult(slackMessage, threadId, result);
+        });
     }
 
-    private Optional<Exception> findExceptionWithResponseStatus(Set<Exception> checked, Exception e) {
-        if (e.getClass().getAnnotation(ResponseStatus.class) != null) {
-            return Optional.of(e);
+    /**
+     * Compiles the listener method into a handle bound to the bean, taking params as an array and returning Object.
+     * Unlike {@link Method#invoke(Object, Object...)} it doesn't check access and box arguments on every call.
+     */
+    private MethodHandle compileMethodHandle(Method method, Object obj) {
+        try {
+            return MethodHandles.lookup().unreflect(method)
+                    .bindTo(obj)
+                    .asSpreader(Object[].class, method.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Listener is not accessible: " + method.getDeclaringClass().getCanonicalName() + "#" + method.getName(), e);
         }
+    }
 
-        Throwable cause = e.getCause();
+    private void handleResult(SlackMessage slackMessage, String threadId, Object result) {
+        if (result instanceof String) {
+            if (threadId == null) {
+                slackService.sendChannelMessage(slackMessage.getChannelId(), (String) result);
+            } else {
+                slackService.sendThreadMessage(slackMessage.getChannelId(), threadId, (String) result);
+            }
+        }
 
-        if (!(cause instanceof Exception)) {
-            return Optional.empty();
+        if (result instanceof SlackReactionResponse) {
+            slackService.addReactions(slackMessage, ((SlackReactionResponse) result).getReactionCodes());
         }
 
-        if (!checked.add((Exception) cause)) {
-            return Optional.empty();
+        if (result instanceof SlackMessageResponse) {
+            slackService.sendChannelMessage(slackMessage.getChannelId(), ((SlackMessageResponse) result).getMessage());
         }
 
-        return findExceptionWithResponseStatus(checked, (Exception) cause);
+        if (result instanceof SlackThreadMessageResponse) {
+            String threadToUse = threadId;
+            if (threadToUse != null) {
+                threadToUse = slackMessage.getTimestamp();
+            }
+            slackService.sendThreadMessage(slackMessage.getChannelId(), threadToUse, ((SlackThreadMessageResponse) result).getMessage());
+        }
     }
 
-    SlackMethodInvoker createAnnotationBasedInvoker(Method method, Object obj) {
-
-        PrecompiledParams precompiledParams = new PrecompiledParams(method);
-
-        return ((slackMessage, userId, messageContent, matcher, threadId) -> {
-
-            Object[] params = precompiledParams.buildParams(new InvocationData(slackMessage, userId, messageContent, matcher, threadId));
+    /**
+     * Sends result of a completed stage without blocking the thread that completed it.
+     */
+    private CompletableFuture<?> handleResultAsync(SlackMessage slackMessage, String threadId, Object result) {
+        if (result instanceof String) {
+            return threadId == null
+                    ? slackService.sendChannelMessageAsync(slackMessage.getChannelId(), (String) result)
+                    : slackService.sendThreadMessageAsync(slackMessage.getChannelId(), threadId, (String) result);
+        }
 
-            Object result = method.invoke(obj, params);
+        if (result instanceof SlackReactionResponse) {
+            return slackService.addReactionsAsync(slackMessage, ((SlackReactionResponse) result).getReactionCodes());
+        }
 
-            if (result instanceof String) {
-                if (threadId == null) {
-                    slackService.sendChannelMessage(slackMessage.getChannelId(), (String) result);
-                } else {
-                    slackService.sendThreadMessage(slackMessage.getChannelId(), threadId, (String) result);
-                }
-            }
+        if (result instanceof SlackMessageResponse) {
+            return slackService.sendChannelMessageAsync(slackMessage.getChannelId(), ((SlackMessageResponse) result).getMessage());
+        }
 
-            if (result instanceof SlackReactionResponse) {
-                slackService.addReactions(slackMessage, ((SlackReactionResponse) result).getReactionCodes());
+        if (result instanceof SlackThreadMessageResponse) {
+            String threadToUse = threadId;
+            if (threadToUse != null) {
+                threadToUse = slackMessage.getTimestamp();
             }
+            return slackService.sendThreadMessageAsync(slackMessage.getChannelId(), threadToUse, ((SlackThreadMessageResponse) result).getMessage());
+        }
 
-            if (result instanceof SlackMessageResponse) {
-                slackService.sendChannelMessage(slackMessage.getChannelId(), ((SlackMessageResponse) result).getMessage());
-            }
+        return CompletableFuture.completedFuture(null);
+    }
 
-            if (result instanceof SlackThreadMessageResponse) {
-                String threadToUse = threadId;
-                if (threadToUse != null) {
-                    threadToUse = slackMessage.getTimestamp();
-                }
-                slackService.sendThreadMessage(slackMessage.getChannelId(), threadToUse, ((SlackThreadMessageResponse) result).getMessage());
-            }
-        });
+    private void reportAsyncError(String channelId, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        logger.error("Can't handle message", cause);
+        if (cause instanceof ClassCastException) {
+            return;
+        }
+        reportError(channelId, cause);
     }
 
     private boolean isMessageCallback(Method m) {
@@ -265,7 +424,17 @@ public class SlackMessageEventListenerSupport {
     }
 
     @FunctionalInterface
-    private interface SlackMethodInvoker {
+    private interface MessageHandler {
+        void handle(SlackMessage msg, String txt, Matcher matcher, String threadId);
+    }
+
+    @FunctionalInterface
+    private interface ReactionHandler {
+        void handle(SlackMessage msg, String userId);
+    }
+
+    @FunctionalInterface
+    interface SlackMethodInvoker {
         default void invoke(SlackMessage slackMessage, String userId) throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
             this.invoke(slackMessage, userId, null, null, null);
         }
@@ -275,39 +444,44 @@ public class SlackMessageEventListenerSupport {
         void invoke(SlackMessage slackMessage, String userId, String messageContent, Matcher matcher, String threadId) throws IllegalAccessException, IllegalArgumentException, InvocationTargetException;
     }
 
-    private class PrecompiledParams {
+    @FunctionalInterface
+    private interface ParamResolver {
+        Object resolve(SlackMessage slackMessage, String userId, String messageContent, Matcher matcher, String threadId);
+    }
+
+    static class PrecompiledParams {
 
-        private final Function<InvocationData, Object>[] precompiledParams;
+        private final ParamResolver[] precompiledParams;
 
         public PrecompiledParams(Method method) {
             Annotation[][] annotations = method.getParameterAnnotations();
             int parameterCount = method.getParameterCount();
-            Function<InvocationData, Object>[] params = new Function[parameterCount];
+            ParamResolver[] params = new ParamResolver[parameterCount];
             for (int i = 0; i < annotations.length; i++) {
                 for (int y = 0; y < annotations[i].length; y++) {
                     if (annotations[i][y] instanceof SlackUserId) {
-                        params[i] = InvocationData::getUserId;
+                        params[i] = (slackMessage, userId, messageContent, matcher, threadId) -> userId;
                     }
                     if (annotations[i][y] instanceof SlackMessageContent) {
-                        params[i] = InvocationData::getMessageContent;
+                        params[i] = (slackMessage, userId, messageContent, matcher, threadId) -> messageContent;
                     }
 
                     if (annotations[i][y] instanceof SlackChannelId) {
-                        params[i] = it -> it.getSlackMessage().getChannelId();
+                        params[i] = (slackMessage, userId, messageContent, matcher, threadId) -> slackMessage.getChannelId();
                     }
 
                     if (annotations[i][y] instanceof SlackThreadId) {
-                        params[i] = InvocationData::getThreadId;
+                        params[i] = (slackMessage, userId, messageContent, matcher, threadId) -> threadId;
                     }
 
                     if (annotations[i][y] instanceof SlackMessageRegexGroup) {
-                        SlackMessageRegexGroup regexGroup = (SlackMessageRegexGroup) annotations[i][y];
-                        params[i] = it -> {
-                            if (it.getMatcher() == null) {
+                        int group = ((SlackMessageRegexGroup) annotations[i][y]).value();
+                        params[i] = (slackMessage, userId, messageContent, matcher, threadId) -> {
+                            if (matcher == null) {
                                 return null;
                             }
 
-                            return it.getMatcher().group(regexGroup.value());
+                            return matcher.group(group);
                         };
 
                     }
@@ -315,7 +489,7 @@ public class SlackMessageEventListenerSupport {
             }
             for (int i = 0; i < parameterCount; i++) {
                 if (SlackMessage.class.equals(method.getParameterTypes()[i])) {
-                    params[i] = InvocationData::getSlackMessage;
+                    params[i] = (slackMessage, userId, messageContent, matcher, threadId) -> slackMessage;
                 }
             }
 
@@ -328,46 +502,12 @@ public class SlackMessageEventListenerSupport {
             precompiledParams = params;
         }
 
-        public Object[] buildParams(InvocationData data) {
-            return Stream.of(precompiledParams)
-                    .map(it -> it.apply(data))
-                    .toArray();
-        }
-    }
-
-    private class InvocationData {
-        private final SlackMessage slackMessage;
-        private final String userId;
-        private final String messageContent;
-        private final Matcher matcher;
-        private final String threadId;
-
-        public InvocationData(SlackMessage slackMessage, String userId, String messageContent, Matcher matcher, String threadId) {
-            this.slackMessage = slackMessage;
-            this.userId = userId;
-            this.messageContent = messageContent;
-            this.matcher = matcher;
-            this.threadId = threadId;
-        }
-
-        public SlackMessage getSlackMessage() {
-            return slackMessage;
-        }
-
-        public String getUserId() {
-            return userId;
-        }
-
-        public String getMessageContent() {
-            return messageContent;
-        }
-
-        public Matcher getMatcher() {
-            return matcher;
-        }
-
-        public String getThreadId() {
-            return threadId;
+        public Object[] buildParams(SlackMessage slackMessage, String userId, String messageContent, Matcher matcher, String threadId) {
+            Object[] result = new Object[precompiledParams.length];
+            for (int i = 0; i < precompiledParams.length; i++) {
+                result[i] = precompiledParams[i].resolve(slackMessage, userId, messageContent, matcher, threadId);
+            }
+            return result;
         }
     }
 }
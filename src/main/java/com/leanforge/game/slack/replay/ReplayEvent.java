@@ -0,0 +1,122 @@
+package com.leanforge.game.slack.replay;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+
+/**
+ * Single recorded event. Events are stored one per line as json, with the fields named like in slack events:
+ * <pre>
+ * {"type": "message", "channel": "C1", "user": "U1", "text": "play", "thread_ts": "1500000000.000100"}
+ * {"type": "reaction_added", "channel": "C1", "user": "U1", "reaction": "+1", "ts": "1500000000.000100"}
+ * </pre>
+ * Optional {@code reply} flag marks events expected to be answered. It defaults to true for messages and
+ * false for reactions. Latency is measured only for events expected to be answered.
+ */
+class ReplayEvent {
+
+    enum Type {
+        MESSAGE, REACTION_ADDED, REACTION_REMOVED
+    }
+
+    private final Type type;
+    private final String channelId;
+    private final String userId;
+    private final String text;
+    private final String threadTimestamp;
+    private final String reaction;
+    private final String messageTimestamp;
+    private final boolean reply;
+
+    private ReplayEvent(Type type, String channelId, String userId, String text, String threadTimestamp, String reaction, String messageTimestamp, boolean reply) {
+        this.type = type;
+        this.channelId = channelId;
+        this.userId = userId;
+        this.text = text;
+        this.threadTimestamp = threadTimestamp;
+        this.reaction = reaction;
+        this.messageTimestamp = messageTimestamp;
+        this.reply = reply;
+    }
+
+    static ReplayEvent message(String channelId, String userId, String text, String threadTimestamp) {
+        return new ReplayEvent(Type.MESSAGE, channelId, userId, text, threadTimestamp, null, null, true);
+    }
+
+    static ReplayEvent reaction(Type type, String channelId, String userId, String reaction, String messageTimestamp) {
+        return new ReplayEvent(type, channelId, userId, null, null, reaction, messageTimestamp, false);
+    }
+
+    /**
+     * @throws IllegalArgumentException when the line isn't a supported event
+     */
+    static ReplayEvent parse(String line, ObjectMapper objectMapper) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid event: " + line, e);
+        }
+
+        String channelId = required(node, "channel", line);
+        String userId = required(node, "user", line);
+        String type = required(node, "type", line);
+        switch (type) {
+            case "message":
+                return new ReplayEvent(Type.MESSAGE, channelId, userId, text(node, "text"), text(node, "thread_ts"), null, null,
+                        node.path("reply").asBoolean(true));
+            case "reaction_added":
+            case "reaction_removed":
+                return new ReplayEvent("reaction_added".equals(type) ? Type.REACTION_ADDED : Type.REACTION_REMOVED, channelId, userId,
+                        null, null, required(node, "reaction", line), required(node, "ts", line), node.path("reply").asBoolean(false));
+            default:
+                throw new IllegalArgumentException("Unsupported event type " + type + ": " + line);
+        }
+    }
+
+    private static String required(JsonNode node, String field, String line) {
+        String value = text(node, field);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing " + field + " in event: " + line);
+        }
+        return value;
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    Type getType() {
+        return type;
+    }
+
+    String getChannelId() {
+        return channelId;
+    }
+
+    String getUserId() {
+        return userId;
+    }
+
+    String getText() {
+        return text;
+    }
+
+    String getThreadTimestamp() {
+        return threadTimestamp;
+    }
+
+    String getReaction() {
+        return reaction;
+    }
+
+    String getMessageTimestamp() {
+        return messageTimestamp;
+    }
+
+    boolean isReply() {
+        return reply;
+    }
+}
@@ -0,0 +1,84 @@
+package com.leanforge.game.slack.replay;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summary of a replay: throughput and end-to-end latency percentiles of answered events.
+ */
+public class ReplayReport {
+
+    private final long events;
+    private final Map<String, Long> calls;
+    private final long rateLimited;
+    private final long unanswered;
+    private final long elapsedMillis;
+    private final long[] latencies;
+
+    ReplayReport(long events, Map<String, Long> calls, long rateLimited, long unanswered, long elapsedMillis, long[] latencies) {
+        this.events = events;
+        this.calls = Collections.unmodifiableMap(calls);
+        this.rateLimited = rateLimited;
+        this.unanswered = unanswered;
+        this.elapsedMillis = elapsedMillis;
+        this.latencies = latencies.clone();
+        Arrays.sort(this.latencies);
+    }
+
+    public long getEvents() {
+        return events;
+    }
+
+    /**
+     * @return number of outbound calls by api method
+     */
+    public Map<String, Long> getCalls() {
+        return calls;
+    }
+
+    public long getRateLimited() {
+        return rateLimited;
+    }
+
+    public long getAnswered() {
+        return latencies.length;
+    }
+
+    public long getUnanswered() {
+        return unanswered;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * @return replayed events per second
+     */
+    public double getThroughput() {
+        return elapsedMillis == 0 ? 0 : events * 1000.0 / elapsedMillis;
+    }
+
+    /**
+     * @param percentile from 0 to 100
+     * @return end-to-end latency in milliseconds or 0 when no event was answered
+     */
+    public double getLatencyMillis(double percentile) {
+        if (latencies.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+        long nanos = latencies[Math.max(0, Math.min(index, latencies.length - 1))];
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d events in %d ms (%.1f/s), %d answered, %d unanswered, latency p50 %.1f ms, p99 %.1f ms, "
+                        + "%d calls rate limited, calls: %s",
+                events, elapsedMillis, getThroughput(), getAnswered(), unanswered, getLatencyMillis(50), getLatencyMillis(99),
+                rateLimited, calls);
+    }
+}
@@ -0,0 +1,335 @@
+package com.leanforge.game.slack.replay;
+
+import com.ullink.slack.simpleslackapi.SlackChannel;
+import com.ullink.slack.simpleslackapi.SlackMessageHandle;
+import com.ullink.slack.simpleslackapi.SlackPersona;
+import com.ullink.slack.simpleslackapi.SlackPreparedMessage;
+import com.ullink.slack.simpleslackapi.SlackSession;
+import com.ullink.slack.simpleslackapi.SlackSessionWrapper;
+import com.ullink.slack.simpleslackapi.SlackUser;
+import com.ullink.slack.simpleslackapi.events.ReactionAdded;
+import com.ullink.slack.simpleslackapi.events.ReactionRemoved;
+import com.ullink.slack.simpleslackapi.events.SlackMessagePosted;
+import com.ullink.slack.simpleslackapi.listeners.ReactionAddedListener;
+import com.ullink.slack.simpleslackapi.listeners.ReactionRemovedListener;
+import com.ullink.slack.simpleslackapi.listeners.SlackChannelArchivedListener;
+import com.ullink.slack.simpleslackapi.listeners.SlackChannelDeletedListener;
+import com.ullink.slack.simpleslackapi.listeners.SlackChannelRenamedListener;
+import com.ullink.slack.simpleslackapi.listeners.SlackMessagePostedListener;
+import com.ullink.slack.simpleslackapi.listeners.SlackTeamJoinListener;
+import com.ullink.slack.simpleslackapi.listeners.SlackUserChangeListener;
+import com.ullink.slack.simpleslackapi.replies.SlackChannelReply;
+import com.ullink.slack.simpleslackapi.replies.SlackMessageReply;
+import com.ullink.slack.simpleslackapi.replies.SlackReply;
+import com.ullink.slack.simpleslackapi.replies.SlackReplyImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Slack session that works without a workspace. Recorded events are injected with {@link #replay(ReplayEvent)}
+ * and outbound calls are recorded instead of being sent. Each call takes the configured latency and fails
+ * with a rate limit error with the configured probability.
+ * <p>
+ * End-to-end latency is measured from injection of an event to the first successful outbound call
+ * in its channel. Events of a channel are handled in order, so the oldest pending event is the answered one.
+ * Users and channels are created on first use. Listeners of events which aren't replayed are ignored,
+ * other calls not needed by {@code SlackService} throw {@link UnsupportedOperationException}.
+ */
+public class ReplaySlackSession extends SlackSessionWrapper {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplaySlackSession.class);
+
+    static final String RATE_LIMITED_ERROR = "ratelimited";
+
+    private final long latencyNanos;
+    private final double rateLimitRatio;
+
+    private final SlackUser persona = new ReplayUser("UREPLAY", "replay-bot", "Replay Bot", "UTC");
+    private final ConcurrentMap<String, SlackUser> users = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, SlackChannel> channels = new ConcurrentHashMap<>();
+    private final List<SlackMessagePostedListener> messageListeners = new CopyOnWriteArrayList<>();
+    private final List<ReactionAddedListener> reactionAddedListeners = new CopyOnWriteArrayList<>();
+    private final List<ReactionRemovedListener> reactionRemovedListeners = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong timestamps = new AtomicLong();
+    private final ConcurrentMap<String, Queue<Long>> pendingReplies = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> calls = new ConcurrentHashMap<>();
+    private final LongAdder events = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LatencyRecorder latencies = new LatencyRecorder();
+
+    /**
+     * @param latencyMillis  simulated duration of every outbound call
+     * @param rateLimitRatio part of outbound calls failing with a rate limit error, from 0 to 1
+     */
+    public ReplaySlackSession(long latencyMillis, double rateLimitRatio) {
+        super((SlackSession) Proxy.newProxyInstance(SlackSession.class.getClassLoader(), new Class<?>[]{SlackSession.class}, (proxy, method, args) -> {
+            if (isListenerRegistration(method.getName())) {
+                logger.debug("Replayed workspace doesn't produce events of {}", method.getName());
+                return null;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        }));
+        this.latencyNanos = TimeUnit.MILLISECONDS.toNanos(latencyMillis);
+        this.rateLimitRatio = rateLimitRatio;
+    }
+
+    private static boolean isListenerRegistration(String methodName) {
+        return (methodName.startsWith("add") || methodName.startsWith("remove")) && methodName.endsWith("Listener");
+    }
+
+    /**
+     * Passes the event to listeners, as if it was received from slack.
+     */
+    void replay(ReplayEvent event) {
+        SlackChannel channel = channel(event.getChannelId());
+        SlackUser user = user(event.getUserId());
+        events.increment();
+        if (event.isReply()) {
+            pendingReplies.computeIfAbsent(channel.getId(), it -> new ConcurrentLinkedQueue<>()).add(System.nanoTime());
+        }
+
+        switch (event.getType()) {
+            case MESSAGE:
+                SlackMessagePosted posted = new SlackMessagePosted(event.getText(), null, user, channel, nextTimestamp(), null, null,
+                        SlackMessagePosted.MessageSubType.UNKNOWN, event.getThreadTimestamp());
+                messageListeners.forEach(it -> it.onEvent(posted, this));
+                break;
+            case REACTION_ADDED:
+                ReactionAdded added = new ReactionAdded(event.getReaction(), user, null, channel, event.getMessageTimestamp(), null, null, nextTimestamp());
+                reactionAddedListeners.forEach(it -> it.onEvent(added, this));
+                break;
+            case REACTION_REMOVED:
+                ReactionRemoved removed = new ReactionRemoved(event.getReaction(), user, null, channel, event.getMessageTimestamp(), null, null, nextTimestamp());
+                reactionRemovedListeners.forEach(it -> it.onEvent(removed, this));
+                break;
+        }
+    }
+
+    /**
+     * @return number of replayed events still waiting for an answer
+     */
+    long getPendingReplies() {
+        return pendingReplies.values().stream().mapToLong(Queue::size).sum();
+    }
+
+    ReplayReport report(long elapsedNanos) {
+        Map<String, Long> callCounts = new TreeMap<>();
+        calls.forEach((method, count) -> callCounts.put(method, count.sum()));
+        return new ReplayReport(events.sum(), callCounts, rateLimited.sum(), getPendingReplies(),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), latencies.snapshot());
+    }
+
+    private SlackChannel channel(String channelId) {
+        return channels.computeIfAbsent(channelId, id -> new SlackChannel(id, id.toLowerCase(), "", "", id.startsWith("D"), true, false));
+    }
+
+    private SlackUser user(String userId) {
+        return users.computeIfAbsent(userId, id -> new ReplayUser(id, id.toLowerCase(), "User " + id, "UTC"));
+    }
+
+    private String nextTimestamp() {
+        long micros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis()) + timestamps.incrementAndGet() % 1000;
+        return micros / 1000000 + "." + String.format("%06d", micros % 1000000);
+    }
+
+    private <T extends SlackReply> SlackMessageHandle<T> call(String method, SlackChannel channel, T reply) {
+        calls.computeIfAbsent(method, it -> new LongAdder()).increment();
+        if (latencyNanos > 0) {
+            sleep();
+        }
+
+        SlackMessageHandle<T> handle = new SlackMessageHandle<>(timestamps.incrementAndGet());
+        if (rateLimitRatio > 0 && ThreadLocalRandom.current().nextDouble() < rateLimitRatio) {
+            rateLimited.increment();
+            @SuppressWarnings("unchecked")
+            T error = (T) new SlackReplyImpl(false, RATE_LIMITED_ERROR);
+            handle.setReply(error);
+            return handle;
+        }
+
+        Queue<Long> pending = channel == null ? null : pendingReplies.get(channel.getId());
+        Long injectedAt = pending == null ? null : pending.poll();
+        if (injectedAt != null) {
+            latencies.record(System.nanoTime() - injectedAt);
+        }
+        handle.setReply(reply);
+        return handle;
+    }
+
+    private void sleep() {
+        try {
+            TimeUnit.NANOSECONDS.sleep(latencyNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private SlackMessageReply messageReply() {
+        String timestamp = nextTimestamp();
+        return new SlackMessageReply(true, null, timestamps.get(), timestamp);
+    }
+
+    @Override
+    public void connect() {
+    }
+
+    @Override
+    public void disconnect() {
+    }
+
+    @Override
+    public boolean isConnected() {
+        return true;
+    }
+
+    @Override
+    public SlackPersona sessionPersona() {
+        return persona;
+    }
+
+    @Override
+    public Collection<SlackUser> getUsers() {
+        return users.values();
+    }
+
+    @Override
+    public Collection<SlackChannel> getChannels() {
+        return channels.values();
+    }
+
+    @Override
+    public SlackUser findUserById(String userId) {
+        return users.get(userId);
+    }
+
+    @Override
+    public SlackUser findUserByUserName(String userName) {
+        return users.values().stream().filter(it -> it.getUserName().equals(userName)).findAny().orElse(null);
+    }
+
+    @Override
+    public SlackChannel findChannelById(String channelId) {
+        return channels.get(channelId);
+    }
+
+    @Override
+    public SlackChannel findChannelByName(String channelName) {
+        return channels.values().stream().filter(it -> channelName.equals(it.getName())).findAny().orElse(null);
+    }
+
+    @Override
+    public void refetchUsers() {
+    }
+
+    @Override
+    public void addMessagePostedListener(SlackMessagePostedListener listener) {
+        messageListeners.add(listener);
+    }
+
+    @Override
+    public void addReactionAddedListener(ReactionAddedListener listener) {
+        reactionAddedListeners.add(listener);
+    }
+
+    @Override
+    public void addReactionRemovedListener(ReactionRemovedListener listener) {
+        reactionRemovedListeners.add(listener);
+    }
+
+    @Override
+    public void addSlackUserChangeListener(SlackUserChangeListener listener) {
+    }
+
+    @Override
+    public void addSlackTeamJoinListener(SlackTeamJoinListener listener) {
+    }
+
+    /**
+     * Channels of the replayed workspace never change.
+     */
+    @Override
+    public void addChannelRenamedListener(SlackChannelRenamedListener listener) {
+    }
+
+    @Override
+    public void addChannelArchivedListener(SlackChannelArchivedListener listener) {
+    }
+
+    @Override
+    public void addChannelDeletedListener(SlackChannelDeletedListener listener) {
+    }
+
+    @Override
+    public SlackMessageHandle<SlackMessageReply> sendMessage(SlackChannel channel, String message) {
+        return call("chat.postMessage", channel, messageReply());
+    }
+
+    @Override
+    public SlackMessageHandle<SlackMessageReply> sendMessage(SlackChannel channel, SlackPreparedMessage preparedMessage) {
+        return call("chat.postMessage", channel, messageReply());
+    }
+
+    @Override
+    public SlackMessageHandle<SlackMessageReply> updateMessage(String timeStamp, SlackChannel channel, String message) {
+        return call("chat.update", channel, messageReply());
+    }
+
+    @Override
+    public SlackMessageHandle<SlackMessageReply> addReactionToMessage(SlackChannel channel, String messageTimeStamp, String emojiCode) {
+        return call("reactions.add", channel, messageReply());
+    }
+
+    @Override
+    public SlackMessageHandle<SlackMessageReply> removeReactionFromMessage(SlackChannel channel, String messageTimeStamp, String emojiCode) {
+        return call("reactions.remove", channel, messageReply());
+    }
+
+    /**
+     * Typing indicator isn't an answer, so it doesn't complete pending events.
+     */
+    @Override
+    public SlackMessageHandle<SlackMessageReply> sendTyping(SlackChannel channel) {
+        return call("typing", null, messageReply());
+    }
+
+    @Override
+    public SlackMessageHandle<SlackChannelReply> openDirectMessageChannel(SlackUser user) {
+        return call("im.open", null, new SlackChannelReply(true, null, channel("D" + user.getId())));
+    }
+
+    /**
+     * Latencies of answered events, kept in a growing array.
+     */
+    private static class LatencyRecorder {
+        private long[] values = new long[1024];
+        private int size;
+
+        synchronized void record(long nanos) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+        }
+
+        synchronized long[] snapshot() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.leanforge.game.slack.replay;
+
+import com.ullink.slack.simpleslackapi.SlackUser;
+
+/**
+ * User of the replayed workspace. Users are created from ids found in recorded events.
+ */
+class ReplayUser implements SlackUser {
+
+    private final String id;
+    private final String userName;
+    private final String realName;
+    private final String timeZone;
+
+    ReplayUser(String id, String userName, String realName, String timeZone) {
+        this.id = id;
+        this.userName = userName;
+        this.realName = realName;
+        this.timeZone = timeZone;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public String getUserName() {
+        return userName;
+    }
+
+    @Override
+    public String getRealName() {
+        return realName;
+    }
+
+    @Override
+    public String getUserMail() {
+        return userName + "@example.com";
+    }
+
+    @Override
+    public String getUserSkype() {
+        return null;
+    }
+
+    @Override
+    public String getUserPhone() {
+        return null;
+    }
+
+    @Override
+    public String getUserTitle() {
+        return null;
+    }
+
+    @Override
+    public boolean isDeleted() {
+        return false;
+    }
+
+    @Override
+    public boolean isAdmin() {
+        return false;
+    }
+
+    @Override
+    public boolean isOwner() {
+        return false;
+    }
+
+    @Override
+    public boolean isPrimaryOwner() {
+        return false;
+    }
+
+    @Override
+    public boolean isRestricted() {
+        return false;
+    }
+
+    @Override
+    public boolean isUltraRestricted() {
+        return false;
+    }
+
+    @Override
+    public boolean isBot() {
+        return false;
+    }
+
+    @Override
+    public String getTimeZone() {
+        return timeZone;
+    }
+
+    @Override
+    public String getTimeZoneLabel() {
+        return timeZone;
+    }
+
+    @Override
+    public Integer getTimeZoneOffset() {
+        return 0;
+    }
+
+    @Override
+    public SlackPresence getPresence() {
+        return SlackPresence.ACTIVE;
+    }
+}
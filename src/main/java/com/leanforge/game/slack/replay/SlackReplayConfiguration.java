@@ -0,0 +1,31 @@
+package com.leanforge.game.slack.replay;
+
+import com.leanforge.game.slack.SlackConfiguration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Replaces the websocket session with {@link ReplaySlackSession} when the {@value #PROFILE} profile is active,
+ * so the bot can be load tested offline. Registered as auto-configuration, so it's loaded only when the profile is active.
+ */
+@Configuration
+@Profile(SlackReplayConfiguration.PROFILE)
+@AutoConfigureBefore(SlackConfiguration.class)
+public class SlackReplayConfiguration {
+
+    public static final String PROFILE = "slack-replay";
+
+    @Bean
+    public ReplaySlackSession slackSession(@Value("${slack.replay.latency-ms:50}") long latencyMillis,
+                                           @Value("${slack.replay.rate-limit-ratio:0}") double rateLimitRatio) {
+        return new ReplaySlackSession(latencyMillis, rateLimitRatio);
+    }
+
+    @Bean
+    public SlackReplayRunner slackReplayRunner() {
+        return new SlackReplayRunner();
+    }
+}
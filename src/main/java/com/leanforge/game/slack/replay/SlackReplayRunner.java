@@ -0,0 +1,119 @@
+package com.leanforge.game.slack.replay;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Replays recorded events into {@link ReplaySlackSession} once the application is ready and logs the report.
+ */
+public class SlackReplayRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlackReplayRunner.class);
+
+    @Autowired
+    ReplaySlackSession slackSession;
+
+    @Autowired
+    ResourceLoader resourceLoader;
+
+    /**
+     * Events in the format described in {@link ReplayEvent}, one per line.
+     */
+    @Value("${slack.replay.events:classpath:slack-replay.jsonl}")
+    String eventsLocation;
+
+    /**
+     * Events replayed per second, 0 replays as fast as possible.
+     */
+    @Value("${slack.replay.rate:100}")
+    double rate = 100;
+
+    @Value("${slack.replay.repeat:1}")
+    int repeat = 1;
+
+    /**
+     * Time given to handlers to answer replayed events before the report is made.
+     */
+    @Value("${slack.replay.drain-timeout-ms:10000}")
+    long drainTimeoutMillis = 10000;
+
+    private volatile ReplayReport report;
+
+    @EventListener(ApplicationReadyEvent.class)
+    void replayInBackground() {
+        Thread thread = new Thread(() -> {
+            try {
+                replay(load());
+            } catch (Exception e) {
+                logger.error("Replay failed", e);
+            }
+        }, "slack-replay");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    ReplayReport replay(List<ReplayEvent> events) {
+        logger.info("Replaying {} events {} time(s) at {}/s", events.size(), repeat, rate);
+        long intervalNanos = rate <= 0 ? 0 : (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long sent = 0;
+
+        for (int i = 0; i < repeat; i++) {
+            for (ReplayEvent event : events) {
+                long delay = start + sent * intervalNanos - System.nanoTime();
+                if (delay > 0) {
+                    LockSupport.parkNanos(delay);
+                }
+                slackSession.replay(event);
+                sent++;
+            }
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(drainTimeoutMillis);
+        while (slackSession.getPendingReplies() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+
+        report = slackSession.report(System.nanoTime() - start);
+        logger.info("Replay finished: {}", report);
+        return report;
+    }
+
+    /**
+     * @return report of the last replay or null when it's still running
+     */
+    public ReplayReport getReport() {
+        return report;
+    }
+
+    private List<ReplayEvent> load() {
+        Resource resource = resourceLoader.getResource(eventsLocation);
+        ObjectMapper objectMapper = new ObjectMapper();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            return reader.lines()
+                    .map(String::trim)
+                    .filter(line -> !line.isEmpty())
+                    .map(line -> ReplayEvent.parse(line, objectMapper))
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't read replay events from " + eventsLocation, e);
+        }
+    }
+}
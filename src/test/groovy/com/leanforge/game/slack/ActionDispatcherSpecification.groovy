@@ -0,0 +1,47 @@
+package com.leanforge.game.slack
+
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.TimeUnit
+
+class ActionDispatcherSpecification extends Specification {
+
+    def registry = new ActionRegistry()
+    def handled = new CopyOnWriteArrayList<String>()
+
+    def "should handle actions of a user in order on worker threads"() {
+        given:
+        def dispatcher = new ActionDispatcher(registry, new OrderedExecutor("test", 4, 100))
+        registry.add('vote', '*', { msg, userId, name, value ->
+            Thread.sleep(value == 'first' ? 50 : 0)
+            handled << value + ':' + msg.responseUrl
+        } as SlackService.ActionCallback)
+
+        when:
+        def first = dispatcher.dispatch(event('first'))
+        def second = dispatcher.dispatch(event('second'))
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS)
+
+        then:
+        handled == ['first:https://hooks', 'second:https://hooks']
+        dispatcher.handledCount == 2
+        dispatcher.maxHandlerTime.toMillis() >= 50
+
+        cleanup:
+        dispatcher.shutdown()
+    }
+
+    private static ActionEvent event(String value) {
+        def event = new ActionEvent()
+        event.userId = 'U1'
+        event.actionName = 'vote'
+        event.actionValue = value
+        event.channelId = 'C1'
+        event.messageTimestamp = '1'
+        event.callbackId = 'cb'
+        event.responseUrl = 'https://hooks'
+        return event
+    }
+}
@@ -0,0 +1,37 @@
+package com.leanforge.game.slack
+
+import com.fasterxml.jackson.core.JsonFactory
+import spock.lang.Specification
+
+class ActionPayloadParserSpecification extends Specification {
+
+    def parser = new ActionPayloadParser(new JsonFactory())
+
+    def "should read action fields and skip the rest"() {
+        given:
+        def payload = '''{"actions":[{"name":"vote","type":"button","value":"yes"},{"name":"other","value":"no"}],
+            "callback_id":"cb","team":{"id":"T1"},"channel":{"id":"C1","name":"general"},"user":{"id":"U1","name":"user"},
+            "message_ts":"1500000000.000100","original_message":{"attachments":[{"callback_id":"x","actions":[{"name":"n"}]}]},
+            "response_url":"https://hooks.slack.com/actions/1"}'''
+
+        when:
+        def event = parser.parse(payload, new ActionEvent())
+
+        then:
+        event.userId == 'U1'
+        event.actionName == 'vote'
+        event.actionValue == 'yes'
+        event.channelId == 'C1'
+        event.messageTimestamp == '1500000000.000100'
+        event.callbackId == 'cb'
+        event.responseUrl == 'https://hooks.slack.com/actions/1'
+    }
+
+    def "should reject payload without required fields"() {
+        when:
+        parser.parse('{"actions":[],"callback_id":"cb","channel":{"id":"C1"},"user":{"id":"U1"},"message_ts":"1"}', new ActionEvent())
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
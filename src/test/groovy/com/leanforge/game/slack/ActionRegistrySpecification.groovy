@@ -0,0 +1,32 @@
+package com.leanforge.game.slack
+
+import spock.lang.Specification
+
+class ActionRegistrySpecification extends Specification {
+
+    def registry = new ActionRegistry()
+    def exact = Mock(SlackService.ActionCallback)
+    def anyValue = Mock(SlackService.ActionCallback)
+    def other = Mock(SlackService.ActionCallback)
+    def oneShot = Mock(SlackService.ActionCallback)
+
+    def setup() {
+        registry.add('vote', 'yes', exact)
+        registry.add('vote', '*', anyValue)
+        registry.add('other', '*', other)
+        registry.addOneShot('callback', oneShot)
+    }
+
+    def "should find callbacks by name and value"() {
+        expect:
+        registry.take('vote', 'yes', null) == [exact, anyValue]
+        registry.take('vote', 'no', null) == [anyValue]
+        registry.take('unknown', 'yes', null) == []
+    }
+
+    def "should call one-shot callback once"() {
+        expect:
+        registry.take('vote', 'no', 'callback') == [anyValue, oneShot]
+        registry.take('vote', 'no', 'callback') == [anyValue]
+    }
+}
@@ -0,0 +1,45 @@
+package com.leanforge.game.slack
+
+import com.ullink.slack.simpleslackapi.SlackChannel
+import spock.lang.Specification
+
+import java.util.function.Function
+
+class ChannelCacheSpecification extends Specification {
+
+    def cache = new ChannelCache()
+    def loader = Mock(Function)
+    def channel = new SlackChannel('D1', null, '', '', true, true, false)
+
+    def "should load direct channel once"() {
+        when:
+        def first = cache.directChannel('U1', loader)
+        def second = cache.directChannel('U1', loader)
+
+        then:
+        1 * loader.apply('U1') >> channel
+        first.is(channel)
+        second.is(channel)
+    }
+
+    def "should load channel again when it's invalidated"() {
+        given:
+        cache.directChannel('U1', { channel } as Function)
+
+        when:
+        cache.invalidate('D1')
+        cache.directChannel('U1', loader)
+
+        then:
+        1 * loader.apply('U1') >> channel
+    }
+
+    def "should not cache missing channels"() {
+        when:
+        cache.channel('C1', loader)
+        cache.channel('C1', loader)
+
+        then:
+        2 * loader.apply('C1') >> null
+    }
+}
@@ -0,0 +1,74 @@
+package com.leanforge.game.slack
+
+import org.springframework.http.HttpStatus
+import spock.lang.Specification
+
+import java.time.Clock
+
+class EventControllerSpecification extends Specification {
+
+    def slackService = Mock(SlackService)
+    def controller = new EventController(slackService: slackService, signingSecret: 'secret')
+    def verifier = new SlackSignatureVerifier('secret', 300, Clock.systemUTC())
+    def now = String.valueOf((long) (System.currentTimeMillis() / 1000))
+
+    def setup() {
+        controller.init()
+    }
+
+    def "should answer url verification challenge"() {
+        given:
+        def body = fixture('url_verification')
+
+        when:
+        def response = controller.handleEvent(now, verifier.sign(now, body), body)
+
+        then:
+        response.body == '3eZbrw1aBm2rZgRNFdxV2595E9CY3gmdALWMmHkvFXO7tYXAYM8P'
+        0 * slackService.handleEvent(_)
+    }
+
+    def "should pass message event to slack service"() {
+        given:
+        def body = fixture('message')
+
+        when:
+        def response = controller.handleEvent(now, verifier.sign(now, body), body)
+
+        then:
+        response.statusCode == HttpStatus.OK
+        1 * slackService.handleEvent({
+            it.eventType == 'message' && it.channelId == 'C1' && it.userId == 'U1' && it.text == 'play 42' &&
+                    it.timestamp == '1500000000.000100' && it.threadTimestamp == '1500000000.000001'
+        })
+    }
+
+    def "should pass reaction event to slack service"() {
+        given:
+        def body = fixture('reaction_added')
+
+        when:
+        controller.handleEvent(now, verifier.sign(now, body), body)
+
+        then:
+        1 * slackService.handleEvent({
+            it.eventType == 'reaction_added' && it.channelId == 'C1' && it.userId == 'U1' &&
+                    it.reaction == 'thumbsup' && it.itemType == 'message' && it.itemTimestamp == '1500000000.000100'
+        })
+    }
+
+    def "should reject invalid or expired signature"() {
+        given:
+        def body = fixture('message')
+        def old = String.valueOf(Long.parseLong(now) - 600)
+
+        expect:
+        controller.handleEvent(now, verifier.sign(now, body + ' '), body).statusCode == HttpStatus.UNAUTHORIZED
+        controller.handleEvent(old, verifier.sign(old, body), body).statusCode == HttpStatus.UNAUTHORIZED
+        controller.handleEvent(null, null, body).statusCode == HttpStatus.UNAUTHORIZED
+    }
+
+    private String fixture(String name) {
+        getClass().getResource("/events/${name}.json").text
+    }
+}
@@ -0,0 +1,46 @@
+package com.leanforge.game.slack
+
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.TimeUnit
+
+class EventExecutorSpecification extends Specification {
+
+    def handled = new CopyOnWriteArrayList<String>()
+    def release = new CountDownLatch(1)
+    def done = new CountDownLatch(2)
+
+    def "should drop events when queue is full"() {
+        given:
+        def executor = new EventExecutor(new OrderedExecutor("test", 2, 10), 2, EventExecutor.OverflowPolicy.DROP)
+
+        when:
+        executor.execute('C1', null, { release.await(5, TimeUnit.SECONDS); handled << 'first'; done.countDown() })
+        executor.execute('C1', null, { handled << 'second'; done.countDown() })
+        executor.execute('C1', null, { handled << 'dropped' })
+        release.countDown()
+        done.await(5, TimeUnit.SECONDS)
+
+        then:
+        handled == ['first', 'second']
+        executor.droppedCount == 1
+
+        cleanup:
+        executor.shutdown()
+    }
+
+    def "should report lag from event timestamp"() {
+        given:
+        def executor = new EventExecutor(null, 10, EventExecutor.OverflowPolicy.BLOCK)
+        def timestamp = String.format('%d.000100', (long) (System.currentTimeMillis() / 1000) - 10)
+
+        when:
+        executor.execute('C1', timestamp, { handled << 'event' })
+
+        then:
+        handled == ['event']
+        executor.lastLag.seconds >= 9
+    }
+}
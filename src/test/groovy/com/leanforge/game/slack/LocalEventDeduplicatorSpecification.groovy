@@ -0,0 +1,47 @@
+package com.leanforge.game.slack
+
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+import java.util.function.LongSupplier
+
+class LocalEventDeduplicatorSpecification extends Specification {
+
+    long now = 0
+    def deduplicator = new LocalEventDeduplicator(1000, 4, { now } as LongSupplier)
+
+    def "should skip events seen within the window"() {
+        expect:
+        deduplicator.firstSeen('C1', '1.1', 'message')
+        !deduplicator.firstSeen('C1', '1.1', 'message')
+        deduplicator.firstSeen('C1', '1.1', 'reaction_added')
+        deduplicator.firstSeen('C2', '1.1', 'message')
+        deduplicator.firstSeen('C1', '1.2', 'message')
+    }
+
+    def "should remember events for one more window"() {
+        given:
+        deduplicator.firstSeen('C1', '1.1', 'message')
+
+        when:
+        now = TimeUnit.MILLISECONDS.toNanos(1500)
+
+        then:
+        !deduplicator.firstSeen('C1', '1.1', 'message')
+
+        when:
+        now = TimeUnit.MILLISECONDS.toNanos(3600)
+
+        then:
+        deduplicator.firstSeen('C1', '1.1', 'message')
+    }
+
+    def "should keep memory bounded by capacity"() {
+        when:
+        (1..9).each { deduplicator.firstSeen('C1', "1.$it", 'message') }
+
+        then:
+        deduplicator.firstSeen('C1', '1.1', 'message')
+        !deduplicator.firstSeen('C1', '1.9', 'message')
+    }
+}
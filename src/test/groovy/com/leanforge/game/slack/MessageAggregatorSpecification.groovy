@@ -0,0 +1,87 @@
+package com.leanforge.game.slack
+
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.TimeUnit
+
+class MessageAggregatorSpecification extends Specification {
+
+    def sent = new CopyOnWriteArrayList<String>()
+    def aggregator = new MessageAggregator({ channelId, threadId, text ->
+        sent << "$channelId/$threadId: $text".toString()
+        CompletableFuture.completedFuture(new SlackMessage('ts', channelId))
+    }, 200, 3, 20)
+
+    def cleanup() {
+        aggregator.shutdown()
+    }
+
+    def "should combine messages sent within the window"() {
+        when:
+        def first = aggregator.add('C1', null, 'a')
+        def second = aggregator.add('C1', null, 'b')
+        aggregator.add('C1', 'T1', 'c')
+        second.get(1, TimeUnit.SECONDS)
+
+        then:
+        first.is(second)
+        sent.contains('C1/null: a\nb')
+    }
+
+    def "should send batch when it reaches the limit"() {
+        when:
+        aggregator.add('C1', null, 'a')
+        aggregator.add('C1', null, 'b')
+        aggregator.add('C1', null, 'c')
+        aggregator.add('C1', null, '12345678901234567890')
+        aggregator.add('C1', null, 'd')
+
+        then:
+        sent == ['C1/null: a\nb\nc', 'C1/null: 12345678901234567890']
+        aggregator.pendingCount == 1
+    }
+
+    def "should flush channel on demand"() {
+        when:
+        aggregator.add('C1', null, 'a')
+        aggregator.add('C1', 'T1', 'b')
+        aggregator.add('C2', null, 'c')
+        aggregator.flush('C1').get(1, TimeUnit.SECONDS)
+
+        then:
+        sent == ['C1/null: a', 'C1/T1: b']
+        aggregator.pendingCount == 1
+    }
+
+    def "should accept messages while a batch is being sent"() {
+        given:
+        def started = new CountDownLatch(1)
+        def release = new CountDownLatch(1)
+        def slowAggregator = new MessageAggregator({ channelId, threadId, text ->
+            started.countDown()
+            release.await(5, TimeUnit.SECONDS)
+            CompletableFuture.completedFuture(new SlackMessage('ts', channelId))
+        }, 200, 1, 20)
+
+        when:
+        def first = CompletableFuture.runAsync({ slowAggregator.add('C1', null, 'a') })
+        started.await(5, TimeUnit.SECONDS)
+        def second = slowAggregator.add('C1', null, 'b')
+
+        then:
+        !second.isDone()
+
+        when:
+        release.countDown()
+        first.get(5, TimeUnit.SECONDS)
+
+        then:
+        second.get(5, TimeUnit.SECONDS) != null
+
+        cleanup:
+        slowAggregator.shutdown()
+    }
+}
@@ -0,0 +1,42 @@
+package com.leanforge.game.slack
+
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.TimeUnit
+
+class MessageUpdateCoalescerSpecification extends Specification {
+
+    def applied = new CopyOnWriteArrayList<String>()
+    def coalescer = new MessageUpdateCoalescer({ message, text ->
+        applied << text
+        CompletableFuture.completedFuture(message)
+    }, 200)
+    def message = new SlackMessage('ts', 'channel')
+
+    def cleanup() {
+        coalescer.shutdown()
+    }
+
+    def "should send only latest of frequent updates"() {
+        when:
+        coalescer.update(message, 'first').get(1, TimeUnit.SECONDS)
+        def second = coalescer.update(message, 'second')
+        def third = coalescer.update(message, 'third')
+        third.get(1, TimeUnit.SECONDS)
+
+        then:
+        second.is(third)
+        applied == ['first', 'third']
+    }
+
+    def "should update different messages independently"() {
+        when:
+        coalescer.update(message, 'first').get(1, TimeUnit.SECONDS)
+        coalescer.update(new SlackMessage('other ts', 'channel'), 'other').get(1, TimeUnit.SECONDS)
+
+        then:
+        applied == ['first', 'other']
+    }
+}
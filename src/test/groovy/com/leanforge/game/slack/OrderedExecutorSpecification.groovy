@@ -0,0 +1,52 @@
+package com.leanforge.game.slack
+
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.TimeUnit
+
+class OrderedExecutorSpecification extends Specification {
+
+    def executor = new OrderedExecutor("test", 2, 2)
+
+    def cleanup() {
+        executor.shutdown()
+    }
+
+    def "should reject tasks of one key exceeding queue capacity"() {
+        given:
+        def started = new CountDownLatch(1)
+        def release = new CountDownLatch(1)
+        def running = executor.submit('C1', {
+            started.countDown()
+            release.await(5, TimeUnit.SECONDS)
+            'first'
+        })
+        started.await(5, TimeUnit.SECONDS)
+
+        when:
+        def queued = (1..2).collect { i -> executor.submit('C1', { "queued $i".toString() }) }
+        def rejected = executor.submit('C1', { 'rejected' })
+
+        then:
+        executor.queueSize == 2
+        rejected.isCompletedExceptionally()
+
+        when:
+        rejected.get()
+
+        then:
+        def e = thrown(ExecutionException)
+        e.cause instanceof RejectedExecutionException
+
+        when:
+        release.countDown()
+
+        then:
+        running.get(5, TimeUnit.SECONDS) == 'first'
+        queued*.get(5, TimeUnit.SECONDS) == ['queued 1', 'queued 2']
+        executor.queueSize == 0
+    }
+}
@@ -0,0 +1,73 @@
+package com.leanforge.game.slack
+
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.TimeUnit
+
+class ReactionPipelineSpecification extends Specification {
+
+    def executor = new OrderedExecutor("test", 4, 100)
+    def applied = new CopyOnWriteArrayList<String>()
+    def started = new CountDownLatch(1)
+    def release = new CountDownLatch(1)
+    def message = new SlackMessage('ts', 'channel')
+
+    def cleanup() {
+        executor.shutdown()
+    }
+
+    def "should add reactions of a message in order"() {
+        given:
+        def pipeline = new ReactionPipeline(executor, { msg, code, add -> applied << code }, true)
+
+        when:
+        pipeline.add(message, 'one', 'two', 'three').get(5, TimeUnit.SECONDS)
+
+        then:
+        applied == ['one', 'two', 'three']
+    }
+
+    def "should deduplicate pending reactions and collapse add/remove pairs"() {
+        given:
+        def pipeline = new ReactionPipeline(executor, { msg, code, add ->
+            if (code == 'first') {
+                started.countDown()
+                release.await(5, TimeUnit.SECONDS)
+            }
+            applied << (add ? '+' : '-') + code
+        }, true)
+
+        when:
+        def first = pipeline.add(message, 'first')
+        started.await(5, TimeUnit.SECONDS)
+        pipeline.add(message, 'dup', 'dup')
+        pipeline.add(message, 'cancelled')
+        def removal = pipeline.remove(message, 'cancelled')
+        def last = pipeline.add(message, 'last')
+        release.countDown()
+        last.get(5, TimeUnit.SECONDS)
+
+        then:
+        first.isDone()
+        removal.isDone()
+        applied == ['+first', '+dup', '+last']
+    }
+
+    def "should fail and forget rejected reaction"() {
+        given:
+        def pipeline = new ReactionPipeline(executor, { msg, code, add -> applied << code }, true)
+        executor.shutdown()
+
+        when:
+        def rejected = pipeline.add(message, 'one')
+        def retried = pipeline.add(message, 'one')
+
+        then:
+        rejected.isCompletedExceptionally()
+        retried.isCompletedExceptionally()
+        !rejected.is(retried)
+        applied.isEmpty()
+    }
+}
@@ -0,0 +1,53 @@
+package com.leanforge.game.slack
+
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.function.Function
+
+class SlackBroadcastSpecification extends Specification {
+
+    def "should limit sends in flight"() {
+        given:
+        def sends = [:]
+        def sender = { target ->
+            def future = new CompletableFuture<SlackMessage>()
+            sends[target.id] = future
+            return future
+        } as Function
+        def broadcast = new SlackBroadcast(SlackBroadcast.Target.channels(['C1', 'C2', 'C3']), 2, sender).start()
+
+        expect:
+        sends.keySet() == ['C1', 'C2'] as Set
+
+        when:
+        sends['C1'].complete(new SlackMessage('1', 'C1', null))
+
+        then:
+        sends.keySet() == ['C1', 'C2', 'C3'] as Set
+        broadcast.sentCount == 1
+        broadcast.pendingCount == 2
+        !broadcast.completion().done
+    }
+
+    def "should report result of every target"() {
+        given:
+        def sender = { target ->
+            if (target.user) {
+                throw new IllegalArgumentException('Unknown user')
+            }
+            return CompletableFuture.completedFuture(new SlackMessage('1', target.id, null))
+        } as Function
+        def targets = SlackBroadcast.Target.channels(['C1', 'C2']) + SlackBroadcast.Target.users(['U1'])
+
+        when:
+        def broadcast = new SlackBroadcast(targets, 1, sender).start()
+
+        then:
+        broadcast.completion().done
+        broadcast.sentCount == 2
+        broadcast.failedCount == 1
+        broadcast.results[SlackBroadcast.Target.channel('C2')].get().channelId == 'C2'
+        broadcast.results[SlackBroadcast.Target.user('U1')].completedExceptionally
+    }
+}
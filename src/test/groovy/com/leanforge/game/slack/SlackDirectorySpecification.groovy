@@ -0,0 +1,24 @@
+package com.leanforge.game.slack
+
+import com.ullink.slack.simpleslackapi.SlackChannel
+import spock.lang.Specification
+
+class SlackDirectorySpecification extends Specification {
+
+    def "should evict channel by id"() {
+        given:
+        def directory = SlackDirectory.of([], [
+                new SlackChannel('C1', 'general', '', '', false, true, false),
+                new SlackChannel('C2', 'random', '', '', false, true, false)
+        ])
+
+        when:
+        def evicted = directory.withoutChannel('C1')
+
+        then:
+        evicted.findChannelName('C1') == null
+        evicted.findChannelId('general') == null
+        evicted.findChannelId('random') == 'C2'
+        directory.findChannelId('general') == 'C1'
+    }
+}
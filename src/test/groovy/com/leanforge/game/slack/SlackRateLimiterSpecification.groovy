@@ -0,0 +1,57 @@
+package com.leanforge.game.slack
+
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.util.function.Supplier
+
+class SlackRateLimiterSpecification extends Specification {
+
+    @Subject
+    SlackRateLimiter rateLimiter = new SlackRateLimiter(1000, 10, 2, 1)
+
+    def "should retry rate limited call"() {
+        given:
+        def attempts = 0
+        Supplier<String> call = {
+            if (++attempts < 3) {
+                throw new SlackRateLimitedException()
+            }
+            'ok'
+        }
+
+        when:
+        def result = rateLimiter.call(SlackApiMethod.CHAT_POST_MESSAGE, 'channel', call)
+
+        then:
+        result == 'ok'
+        attempts == 3
+        rateLimiter.rateLimitedCount == 2
+    }
+
+    def "should give up after max retries"() {
+        given:
+        Supplier<String> call = { throw new SlackRateLimitedException() }
+
+        when:
+        rateLimiter.call(SlackApiMethod.CHAT_POST_MESSAGE, 'channel', call)
+
+        then:
+        thrown(SlackRateLimitedException)
+        rateLimiter.rateLimitedCount == 3
+    }
+
+    def "should make calls wait when channel budget is exceeded"() {
+        given:
+        def limiter = new SlackRateLimiter(20, 1, 0, 1)
+        Supplier<String> call = { 'ok' }
+
+        when:
+        3.times { limiter.call(SlackApiMethod.CHAT_POST_MESSAGE, 'channel', call) }
+        limiter.call(SlackApiMethod.CHAT_POST_MESSAGE, 'other channel', call)
+
+        then:
+        limiter.waitCount == 2
+        limiter.queueDepth == 0
+    }
+}
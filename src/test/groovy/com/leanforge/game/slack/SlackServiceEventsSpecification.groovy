@@ -0,0 +1,40 @@
+package com.leanforge.game.slack
+
+import com.fasterxml.jackson.core.JsonFactory
+import com.ullink.slack.simpleslackapi.SlackSession
+import spock.lang.Specification
+
+class SlackServiceEventsSpecification extends Specification {
+
+    def slackService = new SlackService(slackSession: Mock(SlackSession), httpEvents: true)
+    def received = []
+
+    def setup() {
+        slackService.addLazyMessageListener({ message, threadId, content -> received << message.get() } as SlackService.LazyMessageCallback)
+    }
+
+    def "should pass bot message received over events api with bot id as sender"() {
+        when:
+        slackService.handleEvent(fixture('bot_message'))
+
+        then:
+        received.size() == 1
+        (received[0] as SlackMessage).senderId == 'B1'
+        (received[0] as SlackMessage).channelId == 'C1'
+    }
+
+    def "should skip bot message when bots are ignored"() {
+        given:
+        slackService.ignoreBots = true
+
+        when:
+        slackService.handleEvent(fixture('bot_message'))
+
+        then:
+        received.isEmpty()
+    }
+
+    private EventPayload fixture(String name) {
+        new EventPayloadParser(new JsonFactory()).parse(getClass().getResource("/events/${name}.json").text, new EventPayload())
+    }
+}
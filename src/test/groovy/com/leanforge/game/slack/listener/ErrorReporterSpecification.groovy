@@ -0,0 +1,66 @@
+package com.leanforge.game.slack.listener
+
+import com.leanforge.game.slack.SlackMetrics
+import com.leanforge.game.slack.SlackService
+import org.springframework.web.bind.annotation.ResponseStatus
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.lang.reflect.InvocationTargetException
+import java.util.concurrent.CompletableFuture
+
+class ErrorReporterSpecification extends Specification {
+
+    SlackService slackService = Mock(SlackService)
+
+    def "should use reason of response status from the cause chain"() {
+        given:
+        def reporter = new ErrorReporter(slackService, SlackMetrics.noop(), 0)
+
+        expect:
+        reporter.message(new InvocationTargetException(new RuntimeException(new GameNotFoundException()))) == 'Game not found'
+        reporter.message(new IllegalStateException('boom')).contains('boom')
+    }
+
+    def "should summarize repeated failures in a channel"() {
+        given:
+        def reporter = new ErrorReporter(slackService, SlackMetrics.noop(), 200)
+        def conditions = new PollingConditions(timeout: 5)
+
+        when:
+        3.times { reporter.report('C1', new IllegalStateException('boom' + it)) }
+
+        then:
+        1 * slackService.sendChannelMessageAsync('C1', { it.contains('boom0') }) >> CompletableFuture.completedFuture(null)
+
+        when:
+        conditions.eventually {
+            assert reporter.windows.isEmpty()
+        }
+
+        then:
+        1 * slackService.sendChannelMessageAsync('C1', { it.startsWith('2 more failure(s)') && it.contains('boom2') }) >> CompletableFuture.completedFuture(null)
+
+        cleanup:
+        reporter.shutdown()
+    }
+
+    def "should not summarize response status replies"() {
+        given:
+        def reporter = new ErrorReporter(slackService, SlackMetrics.noop(), 60000)
+
+        when:
+        3.times { reporter.report('C1', new GameNotFoundException()) }
+
+        then:
+        3 * slackService.sendChannelMessageAsync('C1', 'Game not found') >> CompletableFuture.completedFuture(null)
+        reporter.windows.isEmpty()
+
+        cleanup:
+        reporter.shutdown()
+    }
+
+    @ResponseStatus(reason = 'Game not found')
+    static class GameNotFoundException extends RuntimeException {
+    }
+}
@@ -0,0 +1,71 @@
+package com.leanforge.game.slack.listener
+
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.Unroll
+
+import java.util.regex.Pattern
+
+class MessageRouterSpecification extends Specification {
+
+    @Subject
+    MessageRouter<String> router = new MessageRouter<>()
+
+    @Unroll
+    def "should find literal prefix of #regex"() {
+        expect:
+        MessageRouter.literalPrefix(regex) == prefix
+
+        where:
+        regex              | prefix
+        'start game'       | 'start game'
+        'play (\\d+)'      | 'play '
+        'games?'           | 'game'
+        'go+'              | 'go'
+        'a{2}'             | ''
+        '\\!ping .*'       | '!ping '
+        '\\d+ points'      | ''
+        'yes|no'           | ''
+        '(?i)hello'        | ''
+        '.*'               | ''
+    }
+
+    def "should route to all matching handlers in registration order"() {
+        given:
+        router.addRoute(Pattern.compile('.*'), 'any')
+        router.addRoute(Pattern.compile('play (\\d+)'), 'play')
+        router.addRoute(Pattern.compile('stop'), 'stop')
+        router.addRoute(Pattern.compile('p.*'), 'p')
+        def routed = []
+
+        when:
+        router.route('play 12') { handler, matcher -> routed << handler }
+
+        then:
+        routed == ['any', 'play', 'p']
+    }
+
+    def "should pass matcher of matched pattern"() {
+        given:
+        router.addRoute(Pattern.compile('play (\\d+)'), 'play')
+        def groups = []
+
+        when:
+        router.route('play 12') { handler, matcher -> groups << matcher.group(1) }
+
+        then:
+        groups == ['12']
+    }
+
+    def "should not route empty text to prefixed patterns"() {
+        given:
+        router.addRoute(Pattern.compile('play'), 'play')
+        def routed = []
+
+        when:
+        router.route('') { handler, matcher -> routed << handler }
+
+        then:
+        routed.isEmpty()
+    }
+}
@@ -0,0 +1,54 @@
+package com.leanforge.game.slack.listener
+
+import spock.lang.Specification
+
+import javax.tools.ToolProvider
+import java.nio.file.Files
+
+class SlackHandlerIndexProcessorSpecification extends Specification {
+
+    def "should index listener methods at compile time"() {
+        given:
+        def sources = Files.createTempDirectory('sources')
+        def classes = Files.createTempDirectory('classes')
+        def source = sources.resolve('Bot.java')
+        source.text = '''
+            package bot;
+            import com.leanforge.game.slack.SlackMessage;
+            import com.leanforge.game.slack.listener.*;
+            @SlackController
+            public class Bot {
+                @SlackMessageListener("play (\\\\d+)")
+                public String play(@SlackMessageRegexGroup(1) String count, SlackMessage message) { return count; }
+                @SlackReactionListener("+1")
+                public void vote(@SlackUserId String userId) { }
+                public void notAListener() { }
+                public static class Nested {
+                    @SlackActionListener(actionName = "vote")
+                    public void click(@SlackUserId String userId) { }
+                }
+            }
+            '''
+        def libraryClasses = SlackMessageListener.protectionDomain.codeSource.location.path
+        def compiler = ToolProvider.systemJavaCompiler
+        def fileManager = compiler.getStandardFileManager(null, null, null)
+        def task = compiler.getTask(null, fileManager, null,
+                ['-classpath', libraryClasses, '-d', classes.toString(), '-proc:only'], null,
+                fileManager.getJavaFileObjects(source.toFile()))
+        task.processors = [new SlackHandlerIndexProcessor()]
+
+        when:
+        def compiled = task.call()
+        def index = classes.resolve(SlackHandlerIndex.LOCATION).text.readLines()
+
+        then:
+        compiled
+        index.containsAll([
+                SlackHandlerIndex.typeEntry('bot.Bot'),
+                SlackHandlerIndex.methodEntry('bot.Bot', 'play', 'java.lang.String', 'com.leanforge.game.slack.SlackMessage'),
+                SlackHandlerIndex.methodEntry('bot.Bot', 'vote', 'java.lang.String'),
+                SlackHandlerIndex.methodEntry('bot.Bot$Nested', 'click', 'java.lang.String')
+        ])
+        index.size() == 5
+    }
+}
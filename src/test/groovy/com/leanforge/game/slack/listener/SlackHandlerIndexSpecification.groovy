@@ -0,0 +1,43 @@
+package com.leanforge.game.slack.listener
+
+import spock.lang.Specification
+
+import java.nio.file.Files
+
+class SlackHandlerIndexSpecification extends Specification {
+
+    def "should return overridden listener method once"() {
+        given:
+        def root = Files.createTempDirectory('index')
+        def location = root.resolve(SlackHandlerIndex.LOCATION)
+        Files.createDirectories(location.parent)
+        location.text = [
+                SlackHandlerIndex.typeEntry(BaseBot.name),
+                SlackHandlerIndex.methodEntry(BaseBot.name, 'play', 'java.lang.String'),
+                SlackHandlerIndex.methodEntry(BaseBot.name, 'vote', 'java.lang.String'),
+                SlackHandlerIndex.typeEntry(Bot.name),
+                SlackHandlerIndex.methodEntry(Bot.name, 'play', 'java.lang.String')
+        ].join('\n')
+        def classLoader = new URLClassLoader([root.toUri().toURL()] as URL[], getClass().classLoader)
+
+        when:
+        def methods = SlackHandlerIndex.load(classLoader).findListenerMethods(Bot)
+
+        then:
+        methods.collect { "$it.declaringClass.simpleName#$it.name".toString() } == ['Bot#play', 'BaseBot#vote']
+    }
+
+    static class BaseBot {
+        @SlackMessageListener('play')
+        String play(@SlackMessageContent String text) { 'base' }
+
+        @SlackReactionListener('+1')
+        void vote(@SlackUserId String userId) {}
+    }
+
+    static class Bot extends BaseBot {
+        @Override
+        @SlackMessageListener('play')
+        String play(@SlackMessageContent String text) { 'bot' }
+    }
+}
@@ -1,11 +1,14 @@
 package com.leanforge.game.slack.listener
 
 import com.leanforge.game.slack.SlackMessage
+import com.leanforge.game.slack.SlackMetrics
 import com.leanforge.game.slack.SlackService
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
 import org.springframework.context.ApplicationContext
 import spock.lang.Specification
 import spock.lang.Subject
 
+import java.util.concurrent.CompletableFuture
 import java.util.regex.Pattern
 
 class SlackMessageEventListenerSupportSpecification extends Specification {
@@ -95,15 +98,133 @@ class SlackMessageEventListenerSupportSpecification extends Specification {
         1 * slackService.addReactions(message, 'onion')
     }
 
+    def "should handle result of completion stage when it completes"() {
+        given:
+        def handler = new TestHandler()
+        def invoker = slackMessageEventHandler.createAnnotationBasedInvoker(
+                TestHandler.getMethod("thisIsExampleHandler5"),
+                handler
+        )
+        def message = new SlackMessage('a', 'b', 'c')
+
+        when:
+        invoker.invoke(message, 'userid', 'content', null)
+
+        then:
+        handler.methodCalled
+        0 * slackService.sendChannelMessageAsync(*_)
+
+        when:
+        handler.pendingResponse.complete('Async Response')
+
+        then:
+        1 * slackService.sendChannelMessageAsync('b', 'Async Response') >> CompletableFuture.completedFuture(null)
+        0 * slackService.sendChannelMessage(*_)
+    }
+
+    def "should not report class cast failure of completion stage"() {
+        given:
+        def handler = new TestHandler()
+        def invoker = slackMessageEventHandler.createAnnotationBasedInvoker(
+                TestHandler.getMethod("thisIsExampleHandler5"),
+                handler
+        )
+
+        when:
+        invoker.invoke(new SlackMessage('a', 'b', 'c'), 'userid', 'content', null)
+        handler.pendingResponse.completeExceptionally(new ClassCastException('wrong listener'))
+
+        then:
+        0 * slackService.sendChannelMessageAsync(*_)
+    }
+
+    def "should report failure of completion stage"() {
+        given:
+        def handler = new TestHandler()
+        def invoker = slackMessageEventHandler.createAnnotationBasedInvoker(
+                TestHandler.getMethod("thisIsExampleHandler5"),
+                handler
+        )
+
+        when:
+        invoker.invoke(new SlackMessage('a', 'b', 'c'), 'userid', 'content', null)
+        handler.pendingResponse.completeExceptionally(new IllegalStateException('boom'))
+
+        then:
+        1 * slackService.sendChannelMessageAsync('b', { it.contains('boom') }) >> CompletableFuture.completedFuture(null)
+    }
 
     def "should register all handlers"() {
         when:
         slackMessageEventHandler.registerHandlers()
         then:
+        0 * slackService.addReactionListener(_)
+        0 * slackService.addRemoveReactionListener(_)
+        0 * slackService.addLazyMessageListener(_)
+        1 * slackService.addActionListener('name', 'value', _)
+    }
+
+    def "should subscribe to messages once"() {
+        when:
+        new SlackMessageEventListenerSupport(slackService, applicationContext)
+        then:
+        1 * slackService.addLazyMessageListener(_)
+        0 * slackService.addLazyThreadListener(_)
         1 * slackService.addReactionListener(_)
         1 * slackService.addRemoveReactionListener(_)
-        1 * slackService.addMessageListener(_)
-        1 * slackService.addActionListener(_)
+    }
+
+    def "should dispatch reaction to handlers of the emoji"() {
+        given:
+        def message = new SlackMessage('a', 'b')
+
+        when:
+        slackMessageEventHandler.dispatchReaction(SlackReactionListener.Action.REMOVE, message, 'user', 'y')
+
+        then:
+        !handler.methodCalled
+
+        when:
+        slackMessageEventHandler.dispatchReaction(SlackReactionListener.Action.REMOVE, message, 'user', 'x')
+
+        then:
+        handler.methodCalled
+        handler.userId == 'user'
+        handler.slackMessage == message
+    }
+
+    def "should dispatch message to matching handler"() {
+        given:
+        def message = new SlackMessage('a', 'b', 'c')
+
+        when:
+        slackMessageEventHandler.dispatchMessage(message, 'x')
+
+        then:
+        handler.methodCalled
+        1 * slackService.addReactions(message, 'onion')
+    }
+
+    def "should time handlers"() {
+        given:
+        def registry = new SimpleMeterRegistry()
+        def support = new SlackMessageEventListenerSupport(slackService, applicationContext, new SlackMetrics(registry))
+
+        when:
+        support.dispatchMessage(new SlackMessage('a', 'b', 'c'), 'x')
+
+        then:
+        registry.get('slack.handler').tags('type', 'message', 'handler', 'TestHandler#thisIsExampleHandler3').timer().count() == 1
+        registry.get('slack.handler.match').tags('type', 'message').timer().count() == 1
+    }
+
+    def "should not dispatch message without matching handler"() {
+        when:
+        slackMessageEventHandler.dispatchMessage(new SlackMessage('a', 'b', 'c'), 'xx')
+
+        then:
+        !handler.methodCalled
+        0 * slackService.addReactions(*_)
     }
 
     def "should fail on bad handler"() {
@@ -151,6 +272,14 @@ class SlackMessageEventListenerSupportSpecification extends Specification {
             methodCalled = true
             new SlackReactionResponse("onion")
         }
+
+        CompletableFuture<String> pendingResponse = new CompletableFuture<>()
+
+        @SlackMessageListener("async")
+        CompletableFuture<String> thisIsExampleHandler5() {
+            methodCalled = true
+            pendingResponse
+        }
     }
 
     @SlackController
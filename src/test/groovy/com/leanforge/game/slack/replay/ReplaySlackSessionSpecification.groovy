@@ -0,0 +1,65 @@
+package com.leanforge.game.slack.replay
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.ullink.slack.simpleslackapi.events.SlackMessagePosted
+import com.ullink.slack.simpleslackapi.listeners.SlackChannelCreatedListener
+import com.ullink.slack.simpleslackapi.listeners.SlackMessagePostedListener
+import com.ullink.slack.simpleslackapi.replies.SlackReplyImpl
+import spock.lang.Specification
+
+class ReplaySlackSessionSpecification extends Specification {
+
+    def session = new ReplaySlackSession(0, 0)
+
+    def "should replay messages and measure latency to the answer"() {
+        given:
+        def posted = []
+        session.addMessagePostedListener({ event, s ->
+            posted << event
+            s.sendMessage(event.channel, 'pong')
+        } as SlackMessagePostedListener)
+
+        when:
+        session.replay(ReplayEvent.parse('{"type": "message", "channel": "C1", "user": "U1", "text": "ping"}', new ObjectMapper()))
+        session.replay(ReplayEvent.reaction(ReplayEvent.Type.REACTION_ADDED, 'C1', 'U1', '+1', '1.1'))
+        def report = session.report(1000000000)
+
+        then:
+        posted.size() == 1
+        (posted[0] as SlackMessagePosted).messageContent == 'ping'
+        (posted[0] as SlackMessagePosted).sender.id == 'U1'
+        report.events == 2
+        report.answered == 1
+        report.unanswered == 0
+        report.calls == ['chat.postMessage': 1L]
+        report.throughput == 2
+    }
+
+    def "should simulate rate limit errors"() {
+        given:
+        def limitedSession = new ReplaySlackSession(0, 1)
+        limitedSession.replay(ReplayEvent.message('C1', 'U1', 'ping', null))
+
+        when:
+        def reply = limitedSession.sendMessage(limitedSession.findChannelById('C1'), 'pong').reply
+
+        then:
+        (reply as SlackReplyImpl).errorMessage == 'ratelimited'
+        limitedSession.report(1).rateLimited == 1
+        limitedSession.report(1).unanswered == 1
+    }
+
+    def "should ignore listeners of events which aren't replayed and reject other calls"() {
+        when:
+        session.addChannelCreatedListener({ event, s -> } as SlackChannelCreatedListener)
+
+        then:
+        noExceptionThrown()
+
+        when:
+        session.inviteUser('user@example.com', 'User', true)
+
+        then:
+        thrown(UnsupportedOperationException)
+    }
+}